@@ -0,0 +1,50 @@
+package com.microservices.api_gateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Reads a response body for the caching filters without ever holding more than the size limit:
+ * buffers are collected until the body completes or passes {@code maxBytes}, whichever comes
+ * first, and a body that passes it is streamed on as it arrives.
+ */
+final class BoundedBody {
+
+    private BoundedBody() {
+    }
+
+    /**
+     * Hands a body of at most {@code maxBytes} to {@code whole} as one array, and a larger one to
+     * {@code tooLarge} as the buffers read so far followed by the rest of the body.
+     */
+    static Mono<Void> read(Publisher<? extends DataBuffer> body, long maxBytes,
+                           Function<byte[], Mono<Void>> whole,
+                           Function<Flux<DataBuffer>, Mono<Void>> tooLarge) {
+        AtomicLong size = new AtomicLong();
+        // One chunk up to the buffer that passes the limit, then one chunk per buffer
+        return Flux.<DataBuffer>from(body)
+                .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBytes)
+                .switchOnFirst((first, chunks) -> {
+                    Flux<DataBuffer> buffers = chunks.concatMapIterable(Function.identity());
+                    if (size.get() > maxBytes) {
+                        return tooLarge.apply(buffers);
+                    }
+                    return DataBufferUtils.join(buffers)
+                            .map(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                return bytes;
+                            })
+                            .defaultIfEmpty(new byte[0])
+                            .flatMap(whole);
+                })
+                .then();
+    }
+}
@@ -0,0 +1,16 @@
+package com.microservices.api_gateway.cache;
+
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A successful catalog response held by {@link CatalogResponseCache}: the body, the upstream
+ * headers worth replaying and a strong ETag derived from the body.
+ */
+@Value
+public class CachedResponse {
+
+    byte[] body;
+    HttpHeaders headers;
+    String eTag;
+}
@@ -0,0 +1,144 @@
+package com.microservices.api_gateway.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Serves catalog reads ({@code GET /api/v1/products} and {@code GET /api/v1/products/{id}})
+ * from {@link CatalogResponseCache}, answering {@code If-None-Match} with 304 when the ETag
+ * still matches. Place it after JwtAuthenticationFilter so callers are still authenticated;
+ * cache hits skip the filters after it (rate limiting) and the hop to product-service.
+ * Responses larger than {@code gateway.catalog-cache.max-entry-size} are streamed through
+ * uncached, never buffered whole.
+ */
+@Slf4j
+@Component
+public class CatalogCacheFilter extends AbstractGatewayFilterFactory<CatalogCacheFilter.Config> {
+
+    private static final Pattern CATALOG_PATH = Pattern.compile("/api/v1/products(/\\d+)?");
+    private static final List<String> REPLAYED_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, "X-Next-After-Id");
+    private static final String CACHE_HEADER = "X-Cache";
+
+    private final CatalogResponseCache catalogResponseCache;
+    private final long maxEntryBytes;
+
+    public CatalogCacheFilter(CatalogResponseCache catalogResponseCache,
+                              @Value("${gateway.catalog-cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        super(Config.class);
+        this.catalogResponseCache = catalogResponseCache;
+        this.maxEntryBytes = maxEntrySize.toBytes();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (!isCacheable(request)) {
+                return chain.filter(exchange);
+            }
+
+            String key = cacheKey(request);
+            String rolesHeader = request.getHeaders().getFirst("X-User-Roles");
+            CachedResponse cached = catalogResponseCache.get(key, rolesHeader);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+
+            long generation = catalogResponseCache.generation();
+            ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    if (!HttpStatus.OK.equals(getStatusCode()) || !isJson(getHeaders().getContentType())) {
+                        return super.writeWith(body);
+                    }
+                    getHeaders().set(CACHE_HEADER, "MISS");
+                    return BoundedBody.read(body, maxEntryBytes, bytes -> {
+                        CachedResponse response = new CachedResponse(bytes, replayedHeaders(getHeaders()), eTag(bytes));
+                        catalogResponseCache.put(key, rolesHeader, response, generation);
+                        getHeaders().setETag(response.getETag());
+                        return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                    }, super::writeWith);
+                }
+            };
+            return chain.filter(exchange.mutate().response(capturing).build());
+        };
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().setETag(cached.getETag());
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.getETag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().addAll(cached.getHeaders());
+        response.getHeaders().setContentLength(cached.getBody().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.getBody())));
+    }
+
+    private static boolean isCacheable(ServerHttpRequest request) {
+        if (request.getMethod() != HttpMethod.GET || !CATALOG_PATH.matcher(request.getURI().getRawPath()).matches()) {
+            return false;
+        }
+        // NDJSON exports are streamed and never cached
+        return request.getHeaders().getAccept().stream()
+                .noneMatch(MediaType.APPLICATION_NDJSON::isCompatibleWith);
+    }
+
+    private static String cacheKey(ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        return query == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + "?" + query;
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+
+    private static HttpHeaders replayedHeaders(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : REPLAYED_HEADERS) {
+            List<String> values = upstream.get(name);
+            if (values != null) {
+                headers.put(name, values);
+            }
+        }
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static String eTag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public static class Config {
+    }
+}
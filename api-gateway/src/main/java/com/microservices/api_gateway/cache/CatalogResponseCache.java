@@ -0,0 +1,106 @@
+package com.microservices.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory copies of product-service catalog GET responses, keyed by path and query. Entries
+ * expire after {@code gateway.catalog-cache.ttl} and are evicted early by product-changed
+ * events: the changed product's own entries plus every list page, since any page may hold it.
+ *
+ * <p>Catalog reads are authorized by role in product-service, so a cached response is only
+ * served to a roles header that product-service has recently answered with 200 itself.
+ */
+@Slf4j
+@Component
+public class CatalogResponseCache {
+
+    public static final String CACHE_NAME = "gateway.catalog-responses";
+    static final String PRODUCTS_PATH = "/api/v1/products";
+
+    private final Cache<String, CachedResponse> responses;
+    private final Cache<String, Boolean> authorizedRoles;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter invalidations;
+
+    public CatalogResponseCache(MeterRegistry meterRegistry,
+                                @Value("${gateway.catalog-cache.ttl:60s}") Duration ttl,
+                                @Value("${gateway.catalog-cache.maximum-size:1000}") long maximumSize) {
+        this.responses = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        this.authorizedRoles = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(64)
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+        this.invalidations = Counter.builder("gateway.catalog-responses.invalidations")
+                .description("Catalog cache invalidations triggered by product-changed events")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached response, or null if absent or not yet authorized for these roles.
+     */
+    public CachedResponse get(String key, String rolesHeader) {
+        if (rolesHeader == null || authorizedRoles.getIfPresent(rolesHeader) == null) {
+            return null;
+        }
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Marks the start of an upstream fetch; pass the result to {@link #put} so a response
+     * fetched before an invalidation is not cached after it.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, String rolesHeader, CachedResponse response, long fetchedAtGeneration) {
+        if (rolesHeader != null) {
+            authorizedRoles.put(rolesHeader, Boolean.TRUE);
+        }
+        responses.put(key, response);
+        if (generation.get() != fetchedAtGeneration) {
+            responses.invalidate(key);
+        }
+    }
+
+    public void invalidate(Long productId) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        if (productId == null) {
+            responses.invalidateAll();
+            return;
+        }
+
+        String itemPath = PRODUCTS_PATH + "/" + productId;
+        responses.asMap().keySet().removeIf(key -> {
+            String path = pathOf(key);
+            return path.equals(PRODUCTS_PATH) || path.equals(itemPath);
+        });
+        log.debug("Evicted catalog responses for product {}", productId);
+    }
+
+    public long size() {
+        return responses.estimatedSize();
+    }
+
+    private static String pathOf(String key) {
+        int query = key.indexOf('?');
+        return query < 0 ? key : key.substring(0, query);
+    }
+}
@@ -0,0 +1,212 @@
+package com.microservices.api_gateway.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses concurrent identical GETs into one upstream call: the first request (the leader)
+ * is proxied as usual while its response is captured, and requests arriving with the same key
+ * before it completes (followers) are answered with a copy of that response.
+ *
+ * <p>The key is the route, path, query and Accept header, plus the caller's auth scope: with
+ * {@code scope: ROLES} callers sharing the same roles share responses (for user-independent
+ * resources such as the catalog), with {@code scope: USER} (the default) only requests from the
+ * same user are collapsed. If the leader fails, times out or its body exceeds the size limit,
+ * followers fall back to their own upstream call. Place it after RequestRateLimiter so every
+ * caller is still counted against its own limit.
+ */
+@Slf4j
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    private static final List<String> UNSHARED_HEADERS = List.of(
+            HttpHeaders.SET_COOKIE, HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING);
+    private static final String RATE_LIMIT_HEADER_PREFIX = "X-RateLimit-";
+
+    private final Map<String, Sinks.One<CapturedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> coalescedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Counter> upstreamCounters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Duration followerTimeout;
+    private final long maxBodyBytes;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry,
+                                   @Value("${gateway.coalescing.follower-timeout:5s}") Duration followerTimeout,
+                                   @Value("${gateway.coalescing.max-body-size:1MB}") DataSize maxBodySize) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+        this.followerTimeout = followerTimeout;
+        this.maxBodyBytes = maxBodySize.toBytes();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET || isStreaming(request)) {
+                return chain.filter(exchange);
+            }
+
+            String routeId = routeId(exchange);
+            String key = key(routeId, request, config.getScope());
+            Sinks.One<CapturedResponse> sink = Sinks.one();
+            Sinks.One<CapturedResponse> leader = inFlight.putIfAbsent(key, sink);
+
+            if (leader != null) {
+                coalescedCounter(routeId).increment();
+                return leader.asMono()
+                        .timeout(followerTimeout)
+                        .flatMap(captured -> write(exchange, captured))
+                        .onErrorResume(e -> {
+                            log.debug("Coalesced request for {} falls back to upstream: {}", key, e.getMessage());
+                            return chain.filter(exchange);
+                        });
+            }
+
+            upstreamCounter(routeId).increment();
+            return lead(exchange, chain, key, sink);
+        };
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, Sinks.One<CapturedResponse> sink) {
+        Runnable release = () -> inFlight.remove(key, sink);
+
+        ServerHttpResponse capturing = new ServerHttpResponseDecorator(exchange.getResponse()) {
+            @Override
+            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                return BoundedBody.read(body, maxBodyBytes, bytes -> {
+                    release.run();
+                    sink.tryEmitValue(new CapturedResponse(getStatusCode(), sharedHeaders(getHeaders()), bytes));
+                    return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                }, buffers -> {
+                    // Streamed to the leader only; followers go upstream themselves
+                    release.run();
+                    sink.tryEmitError(new IllegalStateException("Response body too large to share"));
+                    return super.writeWith(buffers);
+                });
+            }
+
+            @Override
+            public Mono<Void> setComplete() {
+                release.run();
+                sink.tryEmitValue(new CapturedResponse(getStatusCode(), sharedHeaders(getHeaders()), new byte[0]));
+                return super.setComplete();
+            }
+        };
+
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doOnError(e -> {
+                    release.run();
+                    sink.tryEmitError(e);
+                })
+                .doFinally(signal -> {
+                    // Cancelled or completed without a body: let followers go upstream themselves
+                    release.run();
+                    sink.tryEmitError(new IllegalStateException("Leader completed without a response"));
+                });
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, CapturedResponse captured) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(captured.status());
+        response.getHeaders().putAll(captured.headers());
+        if (captured.body().length == 0) {
+            return response.setComplete();
+        }
+        response.getHeaders().setContentLength(captured.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(captured.body())));
+    }
+
+    private static String key(String routeId, ServerHttpRequest request, Scope scope) {
+        HttpHeaders headers = request.getHeaders();
+        String caller = scope == Scope.ROLES
+                ? "roles:" + headers.getFirst("X-User-Roles")
+                : "user:" + headers.getFirst("X-User-Id");
+        return routeId + ' ' + request.getURI().getRawPath() + '?' + request.getURI().getRawQuery()
+                + ' ' + headers.getFirst(HttpHeaders.ACCEPT) + ' ' + caller;
+    }
+
+    private static boolean isStreaming(ServerHttpRequest request) {
+        return request.getHeaders().getAccept().stream()
+                .anyMatch(type -> MediaType.APPLICATION_NDJSON.isCompatibleWith(type)
+                        || MediaType.TEXT_EVENT_STREAM.isCompatibleWith(type));
+    }
+
+    private static HttpHeaders sharedHeaders(HttpHeaders upstream) {
+        HttpHeaders headers = new HttpHeaders();
+        upstream.forEach((name, values) -> {
+            boolean perRequest = UNSHARED_HEADERS.stream().anyMatch(name::equalsIgnoreCase)
+                    || name.regionMatches(true, 0, RATE_LIMIT_HEADER_PREFIX, 0, RATE_LIMIT_HEADER_PREFIX.length());
+            if (!perRequest) {
+                headers.put(name, values);
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "unknown";
+    }
+
+    private Counter coalescedCounter(String routeId) {
+        return coalescedCounters.computeIfAbsent(routeId, id -> Counter.builder("gateway.requests.coalesced")
+                .description("GET requests answered with the response of an identical in-flight request")
+                .tag("route", id)
+                .register(meterRegistry));
+    }
+
+    private Counter upstreamCounter(String routeId) {
+        return upstreamCounters.computeIfAbsent(routeId, id -> Counter.builder("gateway.requests.coalescing.upstream")
+                .description("GET requests sent upstream on behalf of themselves and any coalesced followers")
+                .tag("route", id)
+                .register(meterRegistry));
+    }
+
+    private record CapturedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    public enum Scope {
+        USER,
+        ROLES
+    }
+
+    @Getter
+    @Setter
+    public static class Config {
+
+        private Scope scope = Scope.USER;
+    }
+}
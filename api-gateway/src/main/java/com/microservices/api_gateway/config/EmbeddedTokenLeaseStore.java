@@ -0,0 +1,55 @@
+package com.microservices.api_gateway.config;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-local stand-in for {@link RedisTokenLeaseStore}, for tests and single-instance runs
+ * without Redis, and the fallback {@link HybridRateLimiter} leases from while the shared store is
+ * down. Shared by several {@link HybridRateLimiter}s it behaves like one Redis server.
+ */
+public class EmbeddedTokenLeaseStore implements TokenLeaseStore {
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Bucket>> bucketsByRoute = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+
+    public EmbeddedTokenLeaseStore() {
+        this(System::nanoTime);
+    }
+
+    EmbeddedTokenLeaseStore(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Mono<Long> lease(String routeId, String id, int replenishRate, int burstCapacity, long requested) {
+        Bucket bucket = bucketsByRoute.computeIfAbsent(routeId, r -> new ConcurrentHashMap<>())
+                .computeIfAbsent(id, k -> new Bucket(burstCapacity, nanoTime.getAsLong()));
+        return Mono.just(bucket.take(replenishRate, burstCapacity, requested, nanoTime.getAsLong()));
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refreshedAt;
+
+        Bucket(double tokens, long refreshedAt) {
+            this.tokens = tokens;
+            this.refreshedAt = refreshedAt;
+        }
+
+        synchronized long take(int replenishRate, int burstCapacity, long requested, long now) {
+            double elapsedSeconds = (double) Math.max(now - refreshedAt, 0) / TimeUnit.SECONDS.toNanos(1);
+            tokens = Math.min(burstCapacity, tokens + elapsedSeconds * replenishRate);
+            refreshedAt = now;
+
+            long granted = Math.min((long) tokens, requested);
+            tokens -= granted;
+            return granted;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.microservices.api_gateway.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Cluster-wide rate limiter that keeps the per-request check in memory. Each gateway instance
+ * leases a small budget of tokens per key from a shared {@link TokenLeaseStore} and spends it
+ * locally, going back to the store only when the lease runs low (prefetched in the background)
+ * or runs out.
+ *
+ * <p>The lease size is {@code tolerance * burstCapacity}. Each lease has at most one renewal in
+ * flight, shared by the prefetch and every request that finds the lease spent, and a prefetch
+ * starts below half a lease, so an instance holds less than 1.5 leases per key: across N
+ * instances the cluster can admit at most 1.5 * N leases beyond the global limit. Unspent
+ * tokens are dropped once a lease is older than the lease TTL, so idle instances don't hoard
+ * budget, and leases idle for longer than the idle timeout are swept off the event loop.
+ * Leases live in one map per route, keyed by the limiter key as is.
+ *
+ * <p>If the store fails, the renewal is served from a process-local bucket with the same rate
+ * and burst instead, so while the store is down each instance enforces the limit on its own
+ * rather than rejecting every request: the cluster admits up to N times the limit until the
+ * store is back. Select it on a route with {@code rate-limiter: "#{@hybridRateLimiter}"} and
+ * {@code hybrid-rate-limiter.*} args.
+ */
+@Slf4j
+public class HybridRateLimiter extends AbstractRateLimiter<HybridRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "hybrid-rate-limiter";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, Lease>> leasesByRoute = new ConcurrentHashMap<>();
+    private final TokenLeaseStore store;
+    private final TokenLeaseStore fallback;
+    private final double tolerance;
+    private final long leaseTtlNanos;
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong nextSweepAt;
+
+    public HybridRateLimiter(ConfigurationService configurationService, TokenLeaseStore store,
+                             double tolerance, Duration leaseTtl, Duration idleTimeout) {
+        this(configurationService, store, tolerance, leaseTtl, idleTimeout, System::nanoTime);
+    }
+
+    HybridRateLimiter(ConfigurationService configurationService, TokenLeaseStore store,
+                      double tolerance, Duration leaseTtl, Duration idleTimeout, LongSupplier nanoTime) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.store = store;
+        this.fallback = new EmbeddedTokenLeaseStore(nanoTime);
+        this.tolerance = tolerance;
+        this.leaseTtlNanos = leaseTtl.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nanoTime = nanoTime;
+        this.nextSweepAt = new AtomicLong(nanoTime.getAsLong() + idleTimeoutNanos);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+        long now = nanoTime.getAsLong();
+        ConcurrentMap<String, Lease> leases = leasesByRoute.get(routeId);
+        if (leases == null) {
+            leases = leasesByRoute.computeIfAbsent(routeId, r -> new ConcurrentHashMap<>());
+        }
+        Lease lease = leases.get(id);
+        if (lease == null) {
+            lease = leases.computeIfAbsent(id, k -> new Lease(now));
+        }
+        maybeSweep(now);
+
+        long leaseSize = leaseSize(config);
+        long remaining = lease.take(config.getRequestedTokens(), now);
+        if (remaining >= 0) {
+            if (remaining < leaseSize / 2 && lease.renewal.get() == null) {
+                renew(routeId, id, lease, config, leaseSize);
+            }
+            return Mono.just(response(true, config, remaining));
+        }
+
+        // Local budget exhausted: this request waits for the lease's renewal, joining one in flight
+        Lease exhausted = lease;
+        return renew(routeId, id, exhausted, config, leaseSize)
+                .map(granted -> {
+                    long left = exhausted.take(config.getRequestedTokens(), nanoTime.getAsLong());
+                    return response(left >= 0, config, Math.max(left, 0));
+                })
+                .defaultIfEmpty(response(false, config, 0))
+                .onErrorResume(e -> {
+                    log.warn("Lease renewal failed for {} on route {}, denying request: {}", id, routeId, e.getMessage());
+                    return Mono.just(response(false, config, 0));
+                });
+    }
+
+    long leaseSize(Config config) {
+        return Math.max(config.getRequestedTokens(), (long) (config.getBurstCapacity() * tolerance));
+    }
+
+    int leaseCount() {
+        return leasesByRoute.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // Route maps are kept even when empty: there is one per configured route
+    void evictIdle(long now) {
+        leasesByRoute.values().forEach(leases -> leases.forEach((id, lease) -> {
+            if (lease.idleSince(now) > idleTimeoutNanos && lease.renewal.get() == null) {
+                leases.remove(id, lease);
+            }
+        }));
+    }
+
+    private void maybeSweep(long now) {
+        long sweepAt = nextSweepAt.get();
+        if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + idleTimeoutNanos)) {
+            Schedulers.boundedElastic().schedule(() -> evictIdle(nanoTime.getAsLong()));
+        }
+    }
+
+    /**
+     * Starts a renewal of the lease unless one is already in flight, and returns the one that is.
+     */
+    private Mono<Long> renew(String routeId, String id, Lease lease, Config config, long leaseSize) {
+        Mono<Long> inFlight = lease.renewal.get();
+        if (inFlight != null) {
+            return inFlight;
+        }
+        Sinks.One<Long> result = Sinks.one();
+        Mono<Long> renewal = result.asMono();
+        inFlight = lease.renewal.compareAndExchange(null, renewal);
+        if (inFlight != null) {
+            return inFlight;
+        }
+
+        Mono.defer(() -> store.lease(routeId, id, config.getReplenishRate(), config.getBurstCapacity(), leaseSize))
+                .onErrorResume(e -> {
+                    log.warn("Token lease store unavailable for {} on route {}, leasing locally: {}",
+                            id, routeId, e.getMessage());
+                    return fallback.lease(routeId, id, config.getReplenishRate(), config.getBurstCapacity(), leaseSize);
+                })
+                .doOnNext(granted -> {
+                    long now = nanoTime.getAsLong();
+                    lease.add(granted, now, now + leaseTtlNanos);
+                })
+                .doFinally(signal -> lease.renewal.set(null))
+                .subscribe(result::tryEmitValue,
+                        e -> {
+                            log.debug("Lease renewal failed for {} on route {}: {}", id, routeId, e.getMessage());
+                            result.tryEmitError(e);
+                        },
+                        result::tryEmitEmpty);
+        return renewal;
+    }
+
+    private Config loadConfiguration(String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            config = getConfig().get("defaultFilters");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return config;
+    }
+
+    private Response response(boolean allowed, Config config, long remaining) {
+        return new Response(allowed, Map.of(
+                RedisRateLimiter.REMAINING_HEADER, String.valueOf(remaining),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens())));
+    }
+
+    private static final class Lease {
+
+        private final AtomicReference<State> state;
+        private final AtomicReference<Mono<Long>> renewal = new AtomicReference<>();
+
+        Lease(long now) {
+            this.state = new AtomicReference<>(new State(0, now));
+        }
+
+        /**
+         * @return tokens left after taking {@code requested}, or -1 if the lease is short
+         */
+        long take(long requested, long now) {
+            while (true) {
+                State current = state.get();
+                long available = current.tokensAt(now);
+                if (available < requested) {
+                    return -1;
+                }
+                if (state.compareAndSet(current, new State(available - requested, current.expiresAt()))) {
+                    return available - requested;
+                }
+            }
+        }
+
+        void add(long granted, long now, long expiresAt) {
+            if (granted <= 0) {
+                return;
+            }
+            while (true) {
+                // Tokens left over from an expired lease are dropped in the same CAS that adds the grant
+                State current = state.get();
+                State renewed = new State(current.tokensAt(now) + granted, expiresAt);
+                if (state.compareAndSet(current, renewed)) {
+                    return;
+                }
+            }
+        }
+
+        long idleSince(long now) {
+            return now - state.get().expiresAt();
+        }
+    }
+
+    private record State(long tokens, long expiresAt) {
+
+        long tokensAt(long now) {
+            return now - expiresAt > 0 ? 0 : tokens;
+        }
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(1)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
@@ -0,0 +1,155 @@
+package com.microservices.api_gateway.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket {@link org.springframework.cloud.gateway.filter.ratelimit.RateLimiter} kept in
+ * gateway memory, for routes that should not pay a Redis round-trip per request. Limits are
+ * per gateway instance, not cluster-wide. Select it on a route with
+ * {@code rate-limiter: "#{@inMemoryRateLimiter}"} and {@code in-memory-rate-limiter.*} args
+ * mirroring the Redis limiter's replenishRate/burstCapacity/requestedTokens.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the time at which it will be full again
+ * (the GCRA form of a token bucket), updated with a CAS loop, so taking tokens from an existing
+ * bucket never locks or allocates; the response itself is still allocated per request. Buckets
+ * live in one {@link ConcurrentHashMap} per route, keyed by the limiter key as is, whose bins
+ * act as the stripes; buckets that have been full for longer than the idle timeout are swept
+ * off the event loop.
+ */
+@Slf4j
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, ConcurrentMap<String, AtomicLong>> bucketsByRoute = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+    private final long idleTimeoutNanos;
+    private final AtomicLong nextSweepAt;
+
+    public InMemoryRateLimiter(ConfigurationService configurationService, Duration idleTimeout) {
+        this(configurationService, idleTimeout, System::nanoTime);
+    }
+
+    InMemoryRateLimiter(ConfigurationService configurationService, Duration idleTimeout, LongSupplier nanoTime) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.nanoTime = nanoTime;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.nextSweepAt = new AtomicLong(nanoTime.getAsLong() + idleTimeoutNanos);
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = loadConfiguration(routeId);
+        long now = nanoTime.getAsLong();
+
+        long remaining = tryAcquire(routeId, id, config, now);
+        maybeSweep(now);
+
+        return Mono.just(new Response(remaining >= 0, headers(config, Math.max(remaining, 0))));
+    }
+
+    /**
+     * @return tokens left after taking the requested ones, or -1 if the bucket is short
+     */
+    long tryAcquire(String routeId, String id, Config config, long now) {
+        ConcurrentMap<String, AtomicLong> buckets = bucketsByRoute.get(routeId);
+        if (buckets == null) {
+            buckets = bucketsByRoute.computeIfAbsent(routeId, r -> new ConcurrentHashMap<>());
+        }
+        AtomicLong bucket = buckets.get(id);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(id, k -> new AtomicLong(now));
+        }
+
+        long interval = NANOS_PER_SECOND / config.getReplenishRate();
+        long capacity = interval * config.getBurstCapacity();
+        long cost = interval * config.getRequestedTokens();
+
+        while (true) {
+            long fullAt = bucket.get();
+            long newFullAt = Math.max(fullAt, now) + cost;
+            long emptyAt = newFullAt - capacity;
+            if (now < emptyAt) {
+                return -1;
+            }
+            if (bucket.compareAndSet(fullAt, newFullAt)) {
+                return (now - emptyAt) / interval;
+            }
+        }
+    }
+
+    int bucketCount() {
+        return bucketsByRoute.values().stream().mapToInt(Map::size).sum();
+    }
+
+    // Route maps are kept even when empty: there is one per configured route
+    void evictIdle(long now) {
+        bucketsByRoute.values().forEach(buckets -> buckets.forEach((id, bucket) -> {
+            if (now - bucket.get() > idleTimeoutNanos) {
+                buckets.remove(id, bucket);
+            }
+        }));
+    }
+
+    private void maybeSweep(long now) {
+        long sweepAt = nextSweepAt.get();
+        if (now >= sweepAt && nextSweepAt.compareAndSet(sweepAt, now + idleTimeoutNanos)) {
+            Schedulers.boundedElastic().schedule(() -> evictIdle(nanoTime.getAsLong()));
+        }
+    }
+
+    private Config loadConfiguration(String routeId) {
+        Config config = getConfig().get(routeId);
+        if (config == null) {
+            config = getConfig().get("defaultFilters");
+        }
+        if (config == null) {
+            throw new IllegalArgumentException("No Configuration found for route " + routeId + " or defaultFilters");
+        }
+        return config;
+    }
+
+    private Map<String, String> headers(Config config, long remaining) {
+        return Map.of(
+                RedisRateLimiter.REMAINING_HEADER, String.valueOf(remaining),
+                RedisRateLimiter.REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()),
+                RedisRateLimiter.BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()),
+                RedisRateLimiter.REQUESTED_TOKENS_HEADER, String.valueOf(config.getRequestedTokens()));
+    }
+
+    @Getter
+    @Setter
+    @ToString
+    @Validated
+    public static class Config {
+
+        @Min(1)
+        private int replenishRate;
+
+        @Min(1)
+        private int burstCapacity = 1;
+
+        @Min(1)
+        private int requestedTokens = 1;
+    }
+}
@@ -1,11 +1,21 @@
 package com.microservices.api_gateway.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
+
 
 @Configuration
 @RequiredArgsConstructor
@@ -28,4 +38,35 @@ public class RateLimiterConfig {
             );
         };
     }
-}
\ No newline at end of file
+
+    // Redis stays the default limiter for routes that don't name one; declaring it here
+    // replaces the auto-configured bean so it can be marked primary next to the in-memory one
+    @Bean
+    @Primary
+    public RedisRateLimiter redisRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                             @Qualifier(RedisRateLimiter.REDIS_SCRIPT_NAME) RedisScript<List<Long>> redisScript,
+                                             ConfigurationService configurationService) {
+        return new RedisRateLimiter(redisTemplate, redisScript, configurationService);
+    }
+
+    @Bean
+    public InMemoryRateLimiter inMemoryRateLimiter(ConfigurationService configurationService,
+                                                   @Value("${gateway.rate-limiter.in-memory.idle-timeout:10m}") Duration idleTimeout) {
+        return new InMemoryRateLimiter(configurationService, idleTimeout);
+    }
+
+    @Bean
+    public TokenLeaseStore tokenLeaseStore(ReactiveStringRedisTemplate redisTemplate,
+                                           @Value("${gateway.rate-limiter.hybrid.store:redis}") String store) {
+        return "embedded".equals(store) ? new EmbeddedTokenLeaseStore() : new RedisTokenLeaseStore(redisTemplate);
+    }
+
+    @Bean
+    public HybridRateLimiter hybridRateLimiter(ConfigurationService configurationService,
+                                               TokenLeaseStore tokenLeaseStore,
+                                               @Value("${gateway.rate-limiter.hybrid.tolerance:0.1}") double tolerance,
+                                               @Value("${gateway.rate-limiter.hybrid.lease-ttl:1s}") Duration leaseTtl,
+                                               @Value("${gateway.rate-limiter.hybrid.idle-timeout:10m}") Duration idleTimeout) {
+        return new HybridRateLimiter(configurationService, tokenLeaseStore, tolerance, leaseTtl, idleTimeout);
+    }
+}
@@ -0,0 +1,34 @@
+package com.microservices.api_gateway.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link TokenLeaseStore} backed by Redis: one Lua script call refills the shared bucket using
+ * Redis' clock and grants as many of the requested tokens as it holds.
+ */
+@RequiredArgsConstructor
+public class RedisTokenLeaseStore implements TokenLeaseStore {
+
+    private static final RedisScript<Long> LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/token_lease.lua"), Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    @Override
+    public Mono<Long> lease(String routeId, String id, int replenishRate, int burstCapacity, long requested) {
+        // The route id's length keeps the key unambiguous whatever '.' either part contains
+        String prefix = "hybrid_rate_limiter.{" + routeId.length() + ':' + routeId + '.' + id + "}";
+        List<String> keys = List.of(prefix + ".tokens", prefix + ".timestamp");
+        List<String> args = List.of(String.valueOf(replenishRate), String.valueOf(burstCapacity), String.valueOf(requested));
+
+        return redisTemplate.execute(LEASE_SCRIPT, keys, args)
+                .next()
+                .defaultIfEmpty(0L);
+    }
+}
@@ -0,0 +1,18 @@
+package com.microservices.api_gateway.config;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Shared, cluster-wide token buckets that gateway instances lease budgets from. Implementations
+ * refill each bucket at {@code replenishRate} tokens per second up to {@code burstCapacity}.
+ */
+public interface TokenLeaseStore {
+
+    /**
+     * Takes up to {@code requested} tokens from the bucket for limiter key {@code id} on
+     * {@code routeId}.
+     *
+     * @return the number of tokens granted, between 0 and {@code requested}
+     */
+    Mono<Long> lease(String routeId, String id, int replenishRate, int burstCapacity, long requested);
+}
@@ -0,0 +1,26 @@
+package com.microservices.api_gateway.kafka.consumer;
+
+import com.microservices.api_gateway.cache.CatalogResponseCache;
+import com.microservices.api_gateway.kafka.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ProductChangedEventConsumer {
+
+    private final CatalogResponseCache catalogResponseCache;
+
+    // No groupId here: every gateway instance consumes under its own group so each local cache is evicted
+    @KafkaListener(topics = "product-changed", containerFactory = "productChangedKafkaListenerContainerFactory")
+    public void consumeProductChangedEvent(@Payload ProductChangedEvent event) {
+        log.debug("Received product changed event: productId={}, changeType={}",
+                event.getProductId(), event.getChangeType());
+
+        catalogResponseCache.invalidate(event.getProductId());
+    }
+}
@@ -1,5 +1,9 @@
 package com.microservices.api_gateway.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
@@ -13,56 +17,66 @@ import reactor.core.publisher.Mono;
 @Component
 public class JwtAuthenticationFilter extends AbstractGatewayFilterFactory<JwtAuthenticationFilter.Config> {
 
-    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final SecurityAuditLogger securityAuditLogger;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, SecurityAuditLogger securityAuditLogger) {
         super(Config.class);
-        this.jwtUtil = jwtUtil;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.securityAuditLogger = securityAuditLogger;
     }
 
     @Override
     public GatewayFilter apply(Config config) {
         return (exchange, chain) -> {
-            String path = exchange.getRequest().getURI().getPath();
-
             String authHeader = exchange.getRequest()
                     .getHeaders()
                     .getFirst(HttpHeaders.AUTHORIZATION);
 
             if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-                log.warn("Missing or invalid Authorization header for path: {}", path);
-                return onError(exchange, "Missing or invalid Authorization header", HttpStatus.UNAUTHORIZED);
+                securityAuditLogger.rejected(exchange.getRequest(), "missing_token");
+                return onError(exchange, HttpStatus.UNAUTHORIZED);
             }
             try {
                 String token = authHeader.substring(7);
 
-                if (!jwtUtil.isTokenValid(token)) {
-                    log.warn("Invalid token for path: {}", path);
-                    return onError(exchange, "Invalid or expired token", HttpStatus.UNAUTHORIZED);
-                }
-                String userId = jwtUtil.extractUserId(token);
-                String email = jwtUtil.extractUsername(token);
-
-                java.util.List<String> roles = jwtUtil.extractRoles(token);
-                String rolesHeader = String.join(",", roles);
+                // Signature is verified once per token and reused until it expires
+                VerifiedToken verified = verifiedTokenCache.verify(token);
+                String rolesHeader = String.join(",", verified.getRoles());
 
                 ServerWebExchange modifiedExchange = exchange.mutate()
                         .request(r -> r
-                                .header("X-User-Id", userId)
-                                .header("X-User-Email", email)
+                                .header("X-User-Id", verified.getUserId())
+                                .header("X-User-Email", verified.getEmail())
                                 .header("X-User-Roles", rolesHeader))
                         .build();
-                log.debug("User {} authenticated for path: {} with roles: {}", email, path, rolesHeader);
+                securityAuditLogger.authenticated(exchange.getRequest(), verified);
                 return chain.filter(modifiedExchange);
+            } catch (JwtException e) {
+                securityAuditLogger.rejected(exchange.getRequest(), rejectionReason(e));
+                return onError(exchange, HttpStatus.UNAUTHORIZED);
             } catch (Exception e) {
-                log.error("JWT validation failed for path {}: {}", path, e.getMessage());
-                return onError(exchange, "Token validation failed", HttpStatus.UNAUTHORIZED);
+                log.error("JWT validation failed for path {}: {}", exchange.getRequest().getURI().getPath(), e.getMessage());
+                securityAuditLogger.rejected(exchange.getRequest(), "error");
+                return onError(exchange, HttpStatus.UNAUTHORIZED);
             }
         };
     }
 
-    private Mono<Void> onError(ServerWebExchange exchange, String err, HttpStatus httpStatus) {
-        log.error("Authentication error: {}", err);
+    private static String rejectionReason(JwtException e) {
+        if (e instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (e instanceof SignatureException) {
+            return "invalid_signature";
+        }
+        if (e instanceof MalformedJwtException) {
+            return "malformed";
+        }
+        return "invalid_token";
+    }
+
+    private Mono<Void> onError(ServerWebExchange exchange, HttpStatus httpStatus) {
         exchange.getResponse().setStatusCode(httpStatus);
         return exchange.getResponse().setComplete();
     }
@@ -1,11 +1,11 @@
 package com.microservices.api_gateway.security;
 
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +15,7 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.List;
 import java.util.function.Function;
 
 @Slf4j
@@ -22,16 +23,43 @@ import java.util.function.Function;
 @Setter
 @Component
 @ConfigurationProperties(prefix = "jwt")
-@SuppressWarnings("unchecked")
 public class JwtUtil {
 
     private String secret;
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        log.debug("Using JWT secret (first 10 chars): {}...",
-                secret != null ? secret.substring(0, Math.min(10, secret.length())) : "null");
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Derived once from the secret; both are immutable and thread-safe
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SecretKey signingKey;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JwtParser parser;
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
+    /**
+     * Verifies the signature and expiry once and returns everything the gateway forwards.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verifyAndDecode(String token) {
+        Claims claims = extractAllClaims(token);
+        Date expiresAt = claims.getExpiration();
+
+        return VerifiedToken.builder()
+                .userId(claims.get("userId", String.class))
+                .email(claims.getSubject())
+                .roles(extractRoles(claims))
+                .expiresAt(expiresAt != null ? expiresAt.toInstant() : null)
+                .build();
     }
 
     public String extractUsername(String token) {
@@ -51,63 +79,29 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Failures are not logged here: the filter records them through SecurityAuditLogger
     private Claims extractAllClaims(String token) {
-        try {
-            log.debug("Attempting to parse JWT token...");
-            Claims claims = Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            log.info(" Token parsed successfully. Subject: {}, UserId: {}",
-                    claims.getSubject(), claims.get("userId"));
-            return claims;
-
-        } catch (SignatureException e) {
-            log.error(" Invalid JWT signature: {}", e.getMessage());
-            throw e;
-        } catch (MalformedJwtException e) {
-            log.error(" Malformed JWT token: {}", e.getMessage());
-            throw e;
-        } catch (ExpiredJwtException e) {
-            log.error(" Expired JWT token: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            log.error("JWT parsing error: {}", e.getMessage(), e);
-            throw e;
-        }
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        Date expiration = extractExpiration(token);
-        Date now = new Date();
-
-        log.debug("Token expiration: {}, Current time: {}", expiration, now);
-
-        boolean expired = expiration.before(now);
-        if (expired) {
-            log.warn(" Token is EXPIRED");
-        }
-
-        return expired;
-    }
-
-
     public Boolean isTokenValid(String token) {
         try {
             extractAllClaims(token);
-
-            log.info(" Token is VALID");
             return true;
 
         } catch (Exception e) {
-            log.error("Token validation failed: {}", e.getMessage());
+            log.debug("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
 
-    public java.util.List<String> extractRoles(String token) {
-        return extractClaim(token, claims -> claims.get("roles", java.util.List.class));
+    public List<String> extractRoles(String token) {
+        return extractRoles(extractAllClaims(token));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> extractRoles(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        return roles != null ? List.copyOf(roles) : List.of();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,152 @@
+package com.microservices.api_gateway.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Audit trail for gateway authentication that stays off the request path. Every rejection is
+ * recorded, successful authentications only at {@code gateway.security-audit.success-sample-rate}.
+ * Events go into a bounded queue and are written by one background thread to the
+ * {@code security.audit} logger as key-value pairs (rendered as fields with
+ * {@code logging.structured.format.*}); when the queue is full, events are dropped and counted
+ * rather than blocking an event-loop thread.
+ *
+ * <p>Exact totals regardless of sampling are kept in the {@code gateway.authentications}
+ * counter, tagged by outcome and reason.
+ */
+@Slf4j
+@Component
+public class SecurityAuditLogger {
+
+    static final Logger AUDIT_LOG = LoggerFactory.getLogger("security.audit");
+
+    private final BlockingQueue<AuditEvent> queue;
+    private final double successSampleRate;
+    private final Consumer<AuditEvent> writer;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+    private final Counter dropped;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    @Autowired
+    public SecurityAuditLogger(MeterRegistry meterRegistry,
+                               @Value("${gateway.security-audit.success-sample-rate:0.01}") double successSampleRate,
+                               @Value("${gateway.security-audit.queue-capacity:10000}") int queueCapacity) {
+        this(meterRegistry, successSampleRate, queueCapacity, SecurityAuditLogger::write);
+    }
+
+    SecurityAuditLogger(MeterRegistry meterRegistry, double successSampleRate, int queueCapacity,
+                        Consumer<AuditEvent> writer) {
+        this.meterRegistry = meterRegistry;
+        this.successSampleRate = successSampleRate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = writer;
+        this.dropped = Counter.builder("gateway.security-audit.dropped")
+                .description("Audit events discarded because the audit queue was full")
+                .register(meterRegistry);
+
+        this.worker = Thread.ofPlatform()
+                .name("security-audit")
+                .daemon(true)
+                .start(this::drain);
+    }
+
+    public void authenticated(ServerHttpRequest request, VerifiedToken token) {
+        count(Outcome.AUTHENTICATED, "ok");
+        if (sampled()) {
+            enqueue(new AuditEvent(Instant.now(), Outcome.AUTHENTICATED, "ok",
+                    request.getMethod().name(), request.getURI().getPath(), token.getUserId()));
+        }
+    }
+
+    public void rejected(ServerHttpRequest request, String reason) {
+        count(Outcome.REJECTED, reason);
+        enqueue(new AuditEvent(Instant.now(), Outcome.REJECTED, reason,
+                request.getMethod().name(), request.getURI().getPath(), null));
+    }
+
+    /**
+     * Stops the writer once the events already queued have been written.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private boolean sampled() {
+        return successSampleRate >= 1.0
+                || (successSampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < successSampleRate);
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void count(Outcome outcome, String reason) {
+        outcomeCounters.computeIfAbsent(outcome + "." + reason, key -> Counter.builder("gateway.authentications")
+                .description("Authentication decisions taken by the gateway")
+                .tag("outcome", outcome.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry))
+                .increment();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    writer.accept(event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to write security audit event: {}", e.getMessage());
+            }
+        }
+    }
+
+    private static void write(AuditEvent event) {
+        AUDIT_LOG.atLevel(event.outcome() == Outcome.REJECTED ? Level.WARN : Level.INFO)
+                .setMessage("Authentication {}")
+                .addArgument(event.outcome())
+                .addKeyValue("timestamp", event.timestamp())
+                .addKeyValue("outcome", event.outcome())
+                .addKeyValue("reason", event.reason())
+                .addKeyValue("method", event.method())
+                .addKeyValue("path", event.path())
+                .addKeyValue("userId", event.userId())
+                .log();
+    }
+
+    enum Outcome {
+        AUTHENTICATED,
+        REJECTED
+    }
+
+    record AuditEvent(Instant timestamp, Outcome outcome, String reason, String method, String path, String userId) {
+    }
+}
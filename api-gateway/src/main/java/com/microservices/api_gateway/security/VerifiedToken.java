@@ -0,0 +1,21 @@
+package com.microservices.api_gateway.security;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable view of the claims the gateway forwards, produced by a single signature
+ * verification in {@link JwtUtil#verifyAndDecode(String)}.
+ */
+@Value
+@Builder
+public class VerifiedToken {
+
+    String userId;
+    String email;
+    List<String> roles;
+    Instant expiresAt;
+}
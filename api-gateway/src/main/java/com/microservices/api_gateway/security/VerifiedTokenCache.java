@@ -0,0 +1,105 @@
+package com.microservices.api_gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Remembers tokens whose signature has already been verified, so a client reusing its bearer
+ * token skips the HMAC check until the token's {@code exp}. Entries are keyed by a SHA-256 of
+ * the token (the raw token is never held), bounded in size, and expire individually at the
+ * token's expiry. Reads are lock-free, which keeps them safe on Netty event-loop threads.
+ *
+ * <p>The cache runs on the wall clock, the same time source as {@code exp}: both the time to
+ * live and the cache's ticker come from one {@link Clock}, so an entry can never outlive its
+ * token.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "gateway.verified-tokens";
+
+    private final JwtUtil jwtUtil;
+    private final Clock clock;
+    private final Cache<String, VerifiedToken> cache;
+
+    @Autowired
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+        this(jwtUtil, meterRegistry, maximumSize, Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry, long maximumSize, Clock clock) {
+        this.jwtUtil = jwtUtil;
+        this.clock = clock;
+        Ticker ticker = () -> ChronoUnit.NANOS.between(Instant.EPOCH, clock.instant());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.creating((String key, VerifiedToken token) -> timeToLive(token)))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("gateway.verified-tokens.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of authenticated requests served without verifying the JWT signature")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the decoded claims of a previously verified token, or verifies and caches it.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is malformed, tampered with or expired
+     */
+    public VerifiedToken verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Failed verifications throw and are never cached
+        VerifiedToken verified = jwtUtil.verifyAndDecode(token);
+        if (verified.getExpiresAt() != null) {
+            cache.put(key, verified);
+        }
+        return verified;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Duration timeToLive(VerifiedToken token) {
+        Duration ttl = Duration.between(clock.instant(), token.getExpiresAt());
+        return ttl.isNegative() ? Duration.ZERO : ttl;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.microservices.api_gateway.cache;
+
+import com.microservices.api_gateway.kafka.consumer.ProductChangedEventConsumer;
+import com.microservices.api_gateway.kafka.event.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogCacheFilterTest {
+
+    private static final String ROLES = "ROLE_USER";
+
+    private CatalogResponseCache catalogResponseCache;
+    private GatewayFilter filter;
+    private AtomicInteger upstreamCalls;
+    private HttpStatus upstreamStatus;
+
+    @BeforeEach
+    void setUp() {
+        catalogResponseCache = new CatalogResponseCache(new SimpleMeterRegistry(), Duration.ofMinutes(1), 100);
+        filter = new CatalogCacheFilter(catalogResponseCache, DataSize.ofMegabytes(1)).apply(new CatalogCacheFilter.Config());
+        upstreamCalls = new AtomicInteger();
+        upstreamStatus = HttpStatus.OK;
+    }
+
+    @Test
+    void get_ShouldServeRepeatedReadFromCache() {
+        MockServerWebExchange first = get("/api/v1/products/1");
+        MockServerWebExchange second = get("/api/v1/products/1");
+
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(body("/api/v1/products/1"));
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(body("/api/v1/products/1"));
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+        assertThat(second.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(second.getResponse().getHeaders().getETag()).isEqualTo(first.getResponse().getHeaders().getETag());
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldAnswerNotModified_WhenETagMatches() {
+        String eTag = get("/api/v1/products").getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidation = exchange(MockServerHttpRequest.get("/api/v1/products")
+                .header("X-User-Roles", ROLES)
+                .ifNoneMatch(eTag));
+        filter.filter(revalidation, this::upstream).block();
+
+        assertThat(revalidation.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(revalidation.getResponse().getBodyAsString().block()).isEmpty();
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void productChanged_ShouldEvictItemAndListPagesOnly() {
+        get("/api/v1/products/1");
+        get("/api/v1/products/2");
+        get("/api/v1/products?size=20");
+
+        catalogResponseCache.invalidate(1L);
+        get("/api/v1/products/1");
+        get("/api/v1/products/2");
+        get("/api/v1/products?size=20");
+
+        assertThat(upstreamCalls.get()).isEqualTo(5);
+    }
+
+    @Test
+    void stockChanged_ShouldEvictCachedProduct() {
+        get("/api/v1/products/1");
+        assertThat(get("/api/v1/products/1").getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("HIT");
+
+        new ProductChangedEventConsumer(catalogResponseCache).consumeProductChangedEvent(ProductChangedEvent.builder()
+                .productId(1L)
+                .changeType("STOCK_CHANGED")
+                .build());
+
+        assertThat(get("/api/v1/products/1").getResponse().getHeaders().getFirst("X-Cache")).isNotEqualTo("HIT");
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldNotServeCache_ToRolesNotYetAuthorizedUpstream() {
+        get("/api/v1/products/1");
+
+        MockServerWebExchange other = exchange(MockServerHttpRequest.get("/api/v1/products/1")
+                .header("X-User-Roles", "ROLE_DELIVERY_ADMIN"));
+        filter.filter(other, this::upstream).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldNotCacheErrorResponses() {
+        upstreamStatus = HttpStatus.NOT_FOUND;
+        get("/api/v1/products/99");
+        get("/api/v1/products/99");
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldStreamOversizedResponseThroughUncached() {
+        filter = new CatalogCacheFilter(catalogResponseCache, DataSize.ofBytes(16)).apply(new CatalogCacheFilter.Config());
+        String path = "/api/v1/products?size=1000";
+
+        MockServerWebExchange first = get(path);
+        MockServerWebExchange second = get(path);
+
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo(body(path));
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo(body(path));
+        assertThat(second.getResponse().getHeaders().getFirst("X-Cache")).isEqualTo("MISS");
+        assertThat(catalogResponseCache.size()).isZero();
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldBypassCacheForNdjsonExport() {
+        for (int i = 0; i < 2; i++) {
+            filter.filter(exchange(MockServerHttpRequest.get("/api/v1/products")
+                    .header("X-User-Roles", ROLES)
+                    .accept(MediaType.APPLICATION_NDJSON)), this::upstream).block();
+        }
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(catalogResponseCache.size()).isZero();
+    }
+
+    @Test
+    void put_ShouldDropResponseFetchedBeforeInvalidation() {
+        long generation = catalogResponseCache.generation();
+        catalogResponseCache.invalidate(1L);
+
+        catalogResponseCache.put("/api/v1/products/1", ROLES,
+                new CachedResponse(new byte[0], new HttpHeaders(), "\"stale\""), generation);
+
+        assertThat(catalogResponseCache.get("/api/v1/products/1", ROLES)).isNull();
+    }
+
+    private MockServerWebExchange get(String uri) {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get(uri).header("X-User-Roles", ROLES));
+        filter.filter(exchange, this::upstream).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return MockServerWebExchange.from(request);
+    }
+
+    // Stands in for the proxied call to product-service, streaming the body in 8-byte buffers
+    private Mono<Void> upstream(ServerWebExchange exchange) {
+        upstreamCalls.incrementAndGet();
+        exchange.getResponse().setStatusCode(upstreamStatus);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        URI uri = exchange.getRequest().getURI();
+        byte[] bytes = body(uri.getRawQuery() == null ? uri.getPath() : uri.getPath() + "?" + uri.getRawQuery())
+                .getBytes(StandardCharsets.UTF_8);
+        return exchange.getResponse().writeWith(Flux.range(0, (bytes.length + 7) / 8)
+                .map(i -> exchange.getResponse().bufferFactory()
+                        .wrap(Arrays.copyOfRange(bytes, i * 8, Math.min(bytes.length, i * 8 + 8)))));
+    }
+
+    private static String body(String path) {
+        return "{\"path\":\"" + path + "\"}";
+    }
+}
@@ -0,0 +1,215 @@
+package com.microservices.api_gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCoalescingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescingFilter factory;
+    private AtomicInteger upstreamCalls;
+    private Sinks.Empty<Void> upstreamReleased;
+    private HttpStatus upstreamStatus;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new RequestCoalescingFilter(meterRegistry, Duration.ofSeconds(5), DataSize.ofMegabytes(1));
+        upstreamCalls = new AtomicInteger();
+        upstreamReleased = Sinks.empty();
+        upstreamStatus = HttpStatus.OK;
+    }
+
+    @Test
+    void get_ShouldShareOneUpstreamCall_AcrossConcurrentIdenticalRequests() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+        List<MockServerWebExchange> exchanges = IntStream.range(0, 5)
+                .mapToObj(i -> get("/api/v1/products/1", "user-" + i, "ROLE_USER"))
+                .toList();
+
+        List<Mono<Void>> pending = exchanges.stream()
+                .map(exchange -> filter.filter(exchange, this::upstream).cache())
+                .toList();
+        pending.forEach(Mono::subscribe);
+        upstreamReleased.tryEmitEmpty();
+        pending.forEach(Mono::block);
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(exchanges).allSatisfy(exchange -> {
+            assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+            assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo(body("/api/v1/products/1"));
+        });
+        assertThat(meterRegistry.get("gateway.requests.coalesced").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("gateway.requests.coalescing.upstream").counter().count()).isEqualTo(1);
+        assertThat(factory.inFlightCount()).isZero();
+    }
+
+    @Test
+    void get_ShouldNotShareResponses_AcrossUsers_WithUserScope() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.USER);
+
+        Mono<Void> first = filter.filter(get("/api/v1/orders/1", "user-1", "ROLE_USER"), this::upstream).cache();
+        Mono<Void> second = filter.filter(get("/api/v1/orders/1", "user-2", "ROLE_USER"), this::upstream).cache();
+        first.subscribe();
+        second.subscribe();
+        upstreamReleased.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldNotShareResponses_AcrossRoleSets() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+
+        Mono<Void> user = filter.filter(get("/api/v1/products/1", "user-1", "ROLE_USER"), this::upstream).cache();
+        Mono<Void> admin = filter.filter(get("/api/v1/products/1", "user-2", "ROLE_PRODUCT_ADMIN"), this::upstream).cache();
+        user.subscribe();
+        admin.subscribe();
+        upstreamReleased.tryEmitEmpty();
+        user.block();
+        admin.block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_ShouldGoUpstreamAgain_OnceInFlightRequestCompleted() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+        upstreamReleased.tryEmitEmpty();
+
+        filter.filter(get("/api/v1/products/1", "user-1", "ROLE_USER"), this::upstream).block();
+        filter.filter(get("/api/v1/products/1", "user-2", "ROLE_USER"), this::upstream).block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(factory.inFlightCount()).isZero();
+    }
+
+    @Test
+    void get_ShouldReplayErrorStatus_ToFollowers() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+        upstreamStatus = HttpStatus.NOT_FOUND;
+        MockServerWebExchange follower = get("/api/v1/products/99", "user-2", "ROLE_USER");
+
+        Mono<Void> first = filter.filter(get("/api/v1/products/99", "user-1", "ROLE_USER"), this::upstream).cache();
+        Mono<Void> second = filter.filter(follower, this::upstream).cache();
+        first.subscribe();
+        second.subscribe();
+        upstreamReleased.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(follower.getResponse().getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    void get_ShouldFallBackToOwnUpstreamCall_WhenLeaderFails() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+        MockServerWebExchange follower = get("/api/v1/products/1", "user-2", "ROLE_USER");
+
+        Mono<Void> failing = filter.filter(get("/api/v1/products/1", "user-1", "ROLE_USER"),
+                exchange -> upstreamReleased.asMono().then(Mono.error(new IllegalStateException("connection reset")))).cache();
+        Mono<Void> second = filter.filter(follower, this::upstream).cache();
+        failing.subscribe(v -> { }, e -> { });
+        second.subscribe();
+        upstreamReleased.tryEmitEmpty();
+        second.block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(1);
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(body("/api/v1/products/1"));
+    }
+
+    @Test
+    void get_ShouldStreamOversizedResponse_AndSendFollowersUpstream() {
+        factory = new RequestCoalescingFilter(meterRegistry, Duration.ofSeconds(5), DataSize.ofBytes(16));
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+        MockServerWebExchange leader = get("/api/v1/products/1", "user-1", "ROLE_USER");
+        MockServerWebExchange follower = get("/api/v1/products/1", "user-2", "ROLE_USER");
+
+        Mono<Void> first = filter.filter(leader, this::upstream).cache();
+        Mono<Void> second = filter.filter(follower, this::upstream).cache();
+        first.subscribe();
+        second.subscribe();
+        upstreamReleased.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+        assertThat(leader.getResponse().getBodyAsString().block()).isEqualTo(body("/api/v1/products/1"));
+        assertThat(follower.getResponse().getBodyAsString().block()).isEqualTo(body("/api/v1/products/1"));
+        assertThat(factory.inFlightCount()).isZero();
+    }
+
+    @Test
+    void post_ShouldNeverBeCoalesced() {
+        GatewayFilter filter = filter(RequestCoalescingFilter.Scope.ROLES);
+
+        Mono<Void> first = filter.filter(post("/api/v1/products"), this::upstream).cache();
+        Mono<Void> second = filter.filter(post("/api/v1/products"), this::upstream).cache();
+        first.subscribe();
+        second.subscribe();
+        upstreamReleased.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertThat(upstreamCalls.get()).isEqualTo(2);
+    }
+
+    private GatewayFilter filter(RequestCoalescingFilter.Scope scope) {
+        RequestCoalescingFilter.Config config = new RequestCoalescingFilter.Config();
+        config.setScope(scope);
+        return factory.apply(config);
+    }
+
+    private static MockServerWebExchange get(String uri, String userId, String roles) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri)
+                .header("X-User-Id", userId)
+                .header("X-User-Roles", roles));
+    }
+
+    private static MockServerWebExchange post(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post(uri)
+                .header("X-User-Id", "user-1")
+                .header("X-User-Roles", "ROLE_PRODUCT_ADMIN"));
+    }
+
+    // Stands in for the proxied call, held back until the test releases it, then streamed in 8-byte buffers
+    private Mono<Void> upstream(ServerWebExchange exchange) {
+        upstreamCalls.incrementAndGet();
+        return upstreamReleased.asMono().then(Mono.defer(() -> {
+            exchange.getResponse().setStatusCode(upstreamStatus);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] bytes = body(exchange.getRequest().getURI().getPath()).getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Flux.range(0, (bytes.length + 7) / 8)
+                    .map(i -> exchange.getResponse().bufferFactory()
+                            .wrap(Arrays.copyOfRange(bytes, i * 8, Math.min(bytes.length, i * 8 + 8)))));
+        }));
+    }
+
+    private static String body(String path) {
+        return "{\"path\":\"" + path + "\"}";
+    }
+}
@@ -0,0 +1,165 @@
+package com.microservices.api_gateway.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HybridRateLimiterTest {
+
+    private static final String ROUTE = "order-service";
+
+    private AtomicLong nanos;
+    private AtomicInteger storeCalls;
+    private TokenLeaseStore sharedStore;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(1_000_000_000L);
+        storeCalls = new AtomicInteger();
+        EmbeddedTokenLeaseStore embedded = new EmbeddedTokenLeaseStore(nanos::get);
+        sharedStore = (routeId, id, replenishRate, burstCapacity, requested) -> {
+            storeCalls.incrementAndGet();
+            return embedded.lease(routeId, id, replenishRate, burstCapacity, requested);
+        };
+    }
+
+    @Test
+    void isAllowed_ShouldServeMostRequestsFromLocalLease() {
+        HybridRateLimiter rateLimiter = limiter(sharedStore, 1000);
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(allowed(rateLimiter, "user-1")).isTrue();
+        }
+
+        // Lease size is 10% of the burst: roughly one store call per 100 requests
+        assertThat(storeCalls.get()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void isAllowed_ShouldKeepGlobalLimitAcrossInstancesWithinTolerance() {
+        HybridRateLimiter first = limiter(sharedStore, 100);
+        HybridRateLimiter second = limiter(sharedStore, 100);
+
+        int admitted = 0;
+        for (int i = 0; i < 300; i++) {
+            if (allowed(i % 2 == 0 ? first : second, "user-1")) {
+                admitted++;
+            }
+        }
+
+        // Never above the global burst; run sequentially, at most one lease per instance is left stranded
+        assertThat(admitted).isBetween(100 - 2 * 10, 100);
+    }
+
+    @Test
+    void isAllowed_ShouldDropUnspentTokensOnceLeaseExpires() {
+        HybridRateLimiter rateLimiter = limiter(sharedStore, 100);
+        allowed(rateLimiter, "user-1");
+        int callsBefore = storeCalls.get();
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        allowed(rateLimiter, "user-1");
+
+        assertThat(storeCalls.get()).isGreaterThan(callsBefore);
+    }
+
+    @Test
+    void isAllowed_ShouldNotCarryExpiredTokensIntoRenewedLease() {
+        HybridRateLimiter rateLimiter = limiter(sharedStore, 100);
+        allowed(rateLimiter, "user-1");
+
+        nanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        RateLimiter.Response response = rateLimiter.isAllowed(ROUTE, "user-1").block();
+
+        // A fresh lease of 10 less this request, not the 9 left over from the expired one on top
+        assertThat(response.getHeaders().get(RedisRateLimiter.REMAINING_HEADER)).isEqualTo("9");
+    }
+
+    @Test
+    void isAllowed_ShouldShareOneRenewal_AcrossRequestsThatFindLeaseSpent() {
+        Sinks.One<Long> pending = Sinks.one();
+        TokenLeaseStore slow = (routeId, id, replenishRate, burstCapacity, requested) -> {
+            storeCalls.incrementAndGet();
+            return pending.asMono();
+        };
+        HybridRateLimiter rateLimiter = limiter(slow, 100);
+
+        List<Mono<RateLimiter.Response>> waiting = IntStream.range(0, 5)
+                .mapToObj(i -> rateLimiter.isAllowed(ROUTE, "user-1"))
+                .toList();
+        assertThat(storeCalls.get()).isEqualTo(1);
+
+        pending.tryEmitValue(10L);
+        assertThat(waiting).allSatisfy(response -> assertThat(response.block().isAllowed()).isTrue());
+        assertThat(storeCalls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void evictIdle_ShouldDropOnlyLeasesIdleForLongerThanIdleTimeout() {
+        HybridRateLimiter rateLimiter = limiter(sharedStore, 100);
+        allowed(rateLimiter, "user-1");
+        nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+        allowed(rateLimiter, "user-2");
+
+        nanos.addAndGet(Duration.ofMinutes(6).toNanos());
+        rateLimiter.evictIdle(nanos.get());
+
+        assertThat(rateLimiter.leaseCount()).isEqualTo(1);
+    }
+
+    @Test
+    void isAllowed_ShouldEnforceLimitLocally_WhenStoreIsUnavailable() {
+        TokenLeaseStore failing = (routeId, id, replenishRate, burstCapacity, requested) ->
+                Mono.error(new IllegalStateException("redis down"));
+        HybridRateLimiter rateLimiter = limiter(failing, 100);
+
+        int admitted = 0;
+        for (int i = 0; i < 300; i++) {
+            if (allowed(rateLimiter, "user-1")) {
+                admitted++;
+            }
+        }
+
+        // Neither fail-closed nor fail-open: the instance's own bucket admits exactly the burst
+        assertThat(admitted).isEqualTo(100);
+    }
+
+    @Test
+    void isAllowed_ShouldNotShareLeasesBetweenRoutesWhoseKeysConcatenateAlike() {
+        HybridRateLimiter rateLimiter = limiter(sharedStore, 10);
+        HybridRateLimiter.Config config = rateLimiter.getConfig().get(ROUTE);
+        rateLimiter.getConfig().put("a.b", config);
+        rateLimiter.getConfig().put("a", config);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.isAllowed("a.b", "c").block().isAllowed()).isTrue();
+        }
+
+        assertThat(rateLimiter.isAllowed("a", "b.c").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.leaseCount()).isEqualTo(2);
+    }
+
+    private HybridRateLimiter limiter(TokenLeaseStore store, int burstCapacity) {
+        HybridRateLimiter rateLimiter = new HybridRateLimiter(null, store, 0.1, Duration.ofSeconds(1), Duration.ofMinutes(10), nanos::get);
+        HybridRateLimiter.Config config = new HybridRateLimiter.Config();
+        config.setReplenishRate(10);
+        config.setBurstCapacity(burstCapacity);
+        rateLimiter.getConfig().put(ROUTE, config);
+        return rateLimiter;
+    }
+
+    private static boolean allowed(HybridRateLimiter rateLimiter, String id) {
+        return rateLimiter.isAllowed(ROUTE, id).block().isAllowed();
+    }
+}
@@ -0,0 +1,143 @@
+package com.microservices.api_gateway.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryRateLimiterTest {
+
+    private static final String ROUTE = "product-service";
+
+    private AtomicLong nanos;
+    private InMemoryRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong(1_000_000_000L);
+        rateLimiter = new InMemoryRateLimiter(null, Duration.ofMinutes(10), nanos::get);
+        rateLimiter.getConfig().put(ROUTE, config(10, 20));
+    }
+
+    @Test
+    void isAllowed_ShouldAllowBurstThenDeny() {
+        for (int i = 0; i < 20; i++) {
+            assertThat(allowed("user-1")).isTrue();
+        }
+
+        RateLimiter.Response denied = rateLimiter.isAllowed(ROUTE, "user-1").block();
+
+        assertThat(denied.isAllowed()).isFalse();
+        assertThat(denied.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(RedisRateLimiter.BURST_CAPACITY_HEADER, "20");
+    }
+
+    @Test
+    void isAllowed_ShouldRefillAtReplenishRate() {
+        for (int i = 0; i < 20; i++) {
+            allowed("user-1");
+        }
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+        assertThat(allowed("user-1")).isTrue();
+        assertThat(allowed("user-1")).isTrue();
+        assertThat(allowed("user-1")).isTrue();
+        assertThat(allowed("user-1")).isFalse();
+    }
+
+    @Test
+    void isAllowed_ShouldKeepBucketsPerKey() {
+        for (int i = 0; i < 20; i++) {
+            allowed("user-1");
+        }
+
+        assertThat(allowed("user-1")).isFalse();
+        assertThat(allowed("user-2")).isTrue();
+    }
+
+    @Test
+    void isAllowed_ShouldKeepBucketsPerRoute() {
+        rateLimiter.getConfig().put("order-service", config(10, 20));
+        for (int i = 0; i < 20; i++) {
+            allowed("user-1");
+        }
+
+        assertThat(allowed("user-1")).isFalse();
+        assertThat(rateLimiter.isAllowed("order-service", "user-1").block().isAllowed()).isTrue();
+        assertThat(rateLimiter.bucketCount()).isEqualTo(2);
+    }
+
+    @Test
+    void isAllowed_ShouldReportRemainingTokens() {
+        RateLimiter.Response response = rateLimiter.isAllowed(ROUTE, "user-1").block();
+
+        assertThat(response.getHeaders()).containsEntry(RedisRateLimiter.REMAINING_HEADER, "19");
+    }
+
+    @Test
+    void isAllowed_ShouldRejectUnconfiguredRoute() {
+        assertThatThrownBy(() -> rateLimiter.isAllowed("unknown", "user-1"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void evictIdle_ShouldDropOnlyBucketsFullForLongerThanIdleTimeout() {
+        allowed("idle");
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        allowed("active");
+
+        rateLimiter.evictIdle(nanos.get());
+
+        assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+        assertThat(rateLimiter.isAllowed(ROUTE, "active").block().getHeaders())
+                .containsEntry(RedisRateLimiter.REMAINING_HEADER, "18");
+    }
+
+    @Test
+    void isAllowed_ShouldNeverExceedBurstUnderContention() throws InterruptedException {
+        int threads = 8;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 100; i++) {
+                    if (allowed("shared")) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted.get()).isEqualTo(20);
+    }
+
+    private boolean allowed(String id) {
+        return rateLimiter.isAllowed(ROUTE, id).block().isAllowed();
+    }
+
+    private static InMemoryRateLimiter.Config config(int replenishRate, int burstCapacity) {
+        InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+}
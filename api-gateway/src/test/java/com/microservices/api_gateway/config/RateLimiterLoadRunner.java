@@ -0,0 +1,125 @@
+package com.microservices.api_gateway.config;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.filter.ratelimit.RedisRateLimiter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load test for the gateway rate limiters: issues isAllowed calls at a fixed 10k RPS
+ * over 1,000 user keys and reports the latency each limiter adds (p50/p99/max), measured from
+ * the scheduled send time so queueing behind a slow limiter is counted.
+ *
+ * <p>The hybrid limiter runs against the embedded lease store, so its numbers exclude the
+ * Redis round-trips made when a lease is renewed.
+ *
+ * <p>Not part of the test suite; run {@link #main} with the test classpath. The Redis limiter
+ * is measured only when a Redis server answers at {@code redis://localhost:6379}.
+ */
+public class RateLimiterLoadRunner {
+
+    private static final int RPS = 10_000;
+    private static final int SECONDS = 10;
+    private static final int USERS = 1_000;
+    private static final String ROUTE = "product-service";
+
+    public static void main(String[] args) throws Exception {
+        InMemoryRateLimiter inMemory = new InMemoryRateLimiter(null, Duration.ofMinutes(10));
+        InMemoryRateLimiter.Config config = new InMemoryRateLimiter.Config();
+        config.setReplenishRate(10);
+        config.setBurstCapacity(20);
+        inMemory.getConfig().put(ROUTE, config);
+
+        run("in-memory (warmup)", inMemory, 2);
+        run("in-memory", inMemory, SECONDS);
+
+        HybridRateLimiter hybrid = new HybridRateLimiter(null, new EmbeddedTokenLeaseStore(), 0.1, Duration.ofSeconds(1), Duration.ofMinutes(10));
+        HybridRateLimiter.Config hybridConfig = new HybridRateLimiter.Config();
+        hybridConfig.setReplenishRate(10);
+        hybridConfig.setBurstCapacity(20);
+        hybrid.getConfig().put(ROUTE, hybridConfig);
+
+        run("hybrid (warmup)", hybrid, 2);
+        run("hybrid (embedded)", hybrid, SECONDS);
+
+        if (redisAvailable()) {
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory("localhost", 6379);
+            connectionFactory.afterPropertiesSet();
+            RedisRateLimiter redis = redisRateLimiter(connectionFactory);
+            run("redis (warmup)", redis, 2);
+            run("redis", redis, SECONDS);
+            connectionFactory.destroy();
+        } else {
+            System.out.println("redis: skipped, no server at localhost:6379");
+        }
+        System.exit(0);
+    }
+
+    private static void run(String name, RateLimiter<?> rateLimiter, int seconds) throws InterruptedException {
+        int requests = RPS * seconds;
+        long[] latencies = new long[requests];
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(requests);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / RPS;
+        long start = System.nanoTime();
+
+        for (int i = 0; i < requests; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            while (System.nanoTime() < scheduledAt) {
+                LockSupport.parkNanos(Math.max(scheduledAt - System.nanoTime(), 0));
+            }
+            int index = i;
+            String user = "user-" + ThreadLocalRandom.current().nextInt(USERS);
+            rateLimiter.isAllowed(ROUTE, user).subscribe(response -> {
+                latencies[index] = System.nanoTime() - scheduledAt;
+                if (response.isAllowed()) {
+                    allowed.incrementAndGet();
+                }
+                done.countDown();
+            }, error -> done.countDown());
+        }
+        done.await(30, TimeUnit.SECONDS);
+
+        Arrays.sort(latencies);
+        System.out.printf("%-20s requests=%d allowed=%d p50=%dus p99=%dus max=%dus%n", name, requests, allowed.get(),
+                latencies[requests / 2] / 1_000, latencies[(int) (requests * 0.99)] / 1_000,
+                latencies[requests - 1] / 1_000);
+    }
+
+    private static RedisRateLimiter redisRateLimiter(LettuceConnectionFactory connectionFactory) {
+        ReactiveStringRedisTemplate template = new ReactiveStringRedisTemplate(connectionFactory);
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        RedisScript<List<Long>> script = (RedisScript) RedisScript.of(
+                new ClassPathResource("META-INF/scripts/request_rate_limiter.lua"), List.class);
+        RedisRateLimiter redis = new RedisRateLimiter(template, script, null);
+        RedisRateLimiter.Config config = new RedisRateLimiter.Config()
+                .setReplenishRate(10)
+                .setBurstCapacity(20);
+        redis.getConfig().put(ROUTE, config);
+        return redis;
+    }
+
+    private static boolean redisAvailable() {
+        try (RedisClient client = RedisClient.create("redis://localhost:6379")) {
+            client.setDefaultTimeout(Duration.ofMillis(500));
+            try (StatefulRedisConnection<String, String> connection = client.connect()) {
+                return "PONG".equals(connection.sync().ping());
+            }
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.microservices.api_gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private GatewayFilter filter;
+    private AtomicReference<ServerHttpRequest> forwarded;
+    private GatewayFilterChain chain;
+    private LinkedBlockingQueue<SecurityAuditLogger.AuditEvent> audited;
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.setSecret(JwtUtilTest.SECRET);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtil, new SimpleMeterRegistry(), 100);
+        audited = new LinkedBlockingQueue<>();
+        SecurityAuditLogger auditLogger = new SecurityAuditLogger(new SimpleMeterRegistry(), 1.0, 100, audited::add);
+        filter = new JwtAuthenticationFilter(cache, auditLogger).apply(new JwtAuthenticationFilter.Config());
+
+        forwarded = new AtomicReference<>();
+        chain = exchange -> {
+            forwarded.set(exchange.getRequest());
+            return Mono.empty();
+        };
+    }
+
+    @Test
+    void validToken_ShouldForwardIdentityHeaders() throws InterruptedException {
+        String token = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER", "ROLE_ORDER_ADMIN"), 60_000);
+        MockServerWebExchange exchange = exchange("Bearer " + token);
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getHeaders();
+        assertEquals("user-1", headers.getFirst("X-User-Id"));
+        assertEquals("john@test.com", headers.getFirst("X-User-Email"));
+        assertEquals("ROLE_USER,ROLE_ORDER_ADMIN", headers.getFirst("X-User-Roles"));
+        assertEquals(SecurityAuditLogger.Outcome.AUTHENTICATED, nextAuditEvent().outcome());
+    }
+
+    @Test
+    void invalidToken_ShouldReturnUnauthorized() throws InterruptedException {
+        String token = JwtUtilTest.token("another-secret-key-for-jwt-signing-0987654321", List.of("ROLE_USER"), 60_000);
+        MockServerWebExchange exchange = exchange("Bearer " + token);
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+        assertEquals("invalid_signature", nextAuditEvent().reason());
+    }
+
+    @Test
+    void missingHeader_ShouldReturnUnauthorized() throws InterruptedException {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+        assertEquals("missing_token", nextAuditEvent().reason());
+    }
+
+    private SecurityAuditLogger.AuditEvent nextAuditEvent() throws InterruptedException {
+        SecurityAuditLogger.AuditEvent event = audited.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "no audit event written");
+        return event;
+    }
+
+    private MockServerWebExchange exchange(String authorization) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/orders")
+                .header(HttpHeaders.AUTHORIZATION, authorization));
+    }
+}
@@ -0,0 +1,76 @@
+package com.microservices.api_gateway.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    static final String SECRET = "my-secret-key-for-jwt-is-1234567!@#";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        jwtUtil.setSecret(SECRET);
+    }
+
+    @Test
+    void verifyAndDecode_ShouldReturnAllForwardedClaims() {
+        String token = token(SECRET, List.of("ROLE_USER", "ROLE_ORDER_ADMIN"), 60_000);
+
+        VerifiedToken verified = jwtUtil.verifyAndDecode(token);
+
+        assertEquals("user-1", verified.getUserId());
+        assertEquals("john@test.com", verified.getEmail());
+        assertEquals(List.of("ROLE_USER", "ROLE_ORDER_ADMIN"), verified.getRoles());
+        assertNotNull(verified.getExpiresAt());
+    }
+
+    @Test
+    void verifyAndDecode_ShouldDefaultToNoRoles() {
+        VerifiedToken verified = jwtUtil.verifyAndDecode(token(SECRET, null, 60_000));
+
+        assertEquals(List.of(), verified.getRoles());
+    }
+
+    @Test
+    void verifyAndDecode_ShouldRejectTokenSignedWithAnotherKey() {
+        String token = token("another-secret-key-for-jwt-signing-0987654321", List.of("ROLE_USER"), 60_000);
+
+        assertThrows(SignatureException.class, () -> jwtUtil.verifyAndDecode(token));
+        assertFalse(jwtUtil.isTokenValid(token));
+    }
+
+    @Test
+    void verifyAndDecode_ShouldRejectExpiredToken() {
+        String token = token(SECRET, List.of("ROLE_USER"), -1_000);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verifyAndDecode(token));
+    }
+
+    static String token(String secret, List<String> roles, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        var builder = Jwts.builder()
+                .subject("john@test.com")
+                .claim("userId", "user-1")
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis));
+        if (roles != null) {
+            builder.claim("roles", roles);
+        }
+        return builder
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
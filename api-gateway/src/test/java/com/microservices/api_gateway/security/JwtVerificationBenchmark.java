@@ -0,0 +1,69 @@
+package com.microservices.api_gateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request JWT cost in the gateway filter: the previous four independent parses, each
+ * deriving the HMAC key and building a parser, against one verifyAndDecode call.
+ *
+ * <p>Not part of the test suite; run {@link #main} from the IDE or with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private String token;
+    private JwtUtil jwtUtil;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        jwtUtil.setSecret(JwtUtilTest.SECRET);
+        token = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER", "ROLE_ORDER_ADMIN"), 3_600_000);
+    }
+
+    @Benchmark
+    public void fourParsesPerRequest(Blackhole blackhole) {
+        // isTokenValid, extractUserId, extractUsername, extractRoles
+        blackhole.consume(legacyParse(token));
+        blackhole.consume(legacyParse(token).get("userId", String.class));
+        blackhole.consume(legacyParse(token).getSubject());
+        blackhole.consume(legacyParse(token).get("roles", List.class));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyAndDecodeOnce() {
+        return jwtUtil.verifyAndDecode(token);
+    }
+
+    private Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(JwtUtilTest.SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtVerificationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
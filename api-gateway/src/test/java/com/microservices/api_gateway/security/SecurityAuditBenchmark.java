@@ -0,0 +1,126 @@
+package com.microservices.api_gateway.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway authentication throughput with the previous per-request synchronous log lines (the
+ * filter's "authenticated" DEBUG line plus JwtUtil's "parsed" line, with the gateway packages
+ * at DEBUG) against the sampled, asynchronous {@link SecurityAuditLogger} at its default 1%.
+ * Tokens are served from {@link VerifiedTokenCache} in both cases, as in steady state.
+ *
+ * <p>Log output goes through a real Logback pattern encoder into a null stream, so the numbers
+ * include formatting and appender locking but not disk or console I/O, which would only widen
+ * the gap.
+ *
+ * <p>Not part of the test suite; run {@link #main} from the IDE or with the test classpath.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityAuditBenchmark {
+
+    private static final Logger FILTER_LOG = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+    private static final Logger JWT_LOG = LoggerFactory.getLogger(JwtUtil.class);
+
+    private GatewayFilter filter;
+    private SecurityAuditLogger auditLogger;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        configureLogging();
+
+        JwtUtil jwtUtil = new JwtUtil();
+        jwtUtil.setSecret(JwtUtilTest.SECRET);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        auditLogger = new SecurityAuditLogger(meterRegistry, 0.01, 10_000);
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(jwtUtil, meterRegistry, 1000), auditLogger)
+                .apply(new JwtAuthenticationFilter.Config());
+        authorization = "Bearer " + JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER"), 3_600_000);
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        auditLogger.close();
+    }
+
+    @Benchmark
+    public void synchronousDebugLogging(Request request) {
+        MockServerWebExchange exchange = request.exchange;
+        filter.filter(exchange, e -> Mono.empty()).block();
+        String path = exchange.getRequest().getURI().getPath();
+        JWT_LOG.debug("Token parsed successfully. Subject: {}, UserId: {}", "john@test.com", "user-1");
+        FILTER_LOG.debug("User {} authenticated for path: {} with roles: {}", "john@test.com", path, "ROLE_USER");
+    }
+
+    @Benchmark
+    public void sampledAsyncAudit(Request request) {
+        filter.filter(request.exchange, e -> Mono.empty()).block();
+    }
+
+    // Successful authentication never touches the response, so one exchange per thread is reused
+    @State(Scope.Thread)
+    public static class Request {
+
+        private MockServerWebExchange exchange;
+
+        @Setup
+        public void setUp(SecurityAuditBenchmark benchmark) {
+            exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/products/1")
+                    .header(HttpHeaders.AUTHORIZATION, benchmark.authorization));
+        }
+    }
+
+    private static void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{ISO8601} %-5level [%thread] %logger{36} - %msg %kvp%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        context.getLogger("com.microservices.api_gateway").setLevel(Level.DEBUG);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SecurityAuditBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.microservices.api_gateway.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityAuditLoggerTest {
+
+    private static final VerifiedToken TOKEN = VerifiedToken.builder()
+            .userId("user-1")
+            .email("john@test.com")
+            .roles(List.of("ROLE_USER"))
+            .expiresAt(Instant.now().plusSeconds(60))
+            .build();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<SecurityAuditLogger.AuditEvent> written = new CopyOnWriteArrayList<>();
+
+    @Test
+    void rejected_ShouldAlwaysBeWritten() throws InterruptedException {
+        SecurityAuditLogger auditLogger = new SecurityAuditLogger(meterRegistry, 0.0, 100, written::add);
+
+        auditLogger.rejected(request(), "expired");
+        auditLogger.rejected(request(), "invalid_signature");
+        auditLogger.close();
+
+        assertEquals(List.of("expired", "invalid_signature"),
+                written.stream().map(SecurityAuditLogger.AuditEvent::reason).toList());
+        assertEquals("/api/v1/orders", written.get(0).path());
+        assertEquals("GET", written.get(0).method());
+    }
+
+    @Test
+    void authenticated_ShouldBeSkipped_WhenSampleRateIsZero_ButStillCounted() throws InterruptedException {
+        SecurityAuditLogger auditLogger = new SecurityAuditLogger(meterRegistry, 0.0, 100, written::add);
+
+        for (int i = 0; i < 100; i++) {
+            auditLogger.authenticated(request(), TOKEN);
+        }
+        auditLogger.close();
+
+        assertTrue(written.isEmpty());
+        assertEquals(100, meterRegistry.get("gateway.authentications")
+                .tag("outcome", "authenticated").counter().count());
+    }
+
+    @Test
+    void authenticated_ShouldBeWritten_WhenSampleRateIsOne() throws InterruptedException {
+        SecurityAuditLogger auditLogger = new SecurityAuditLogger(meterRegistry, 1.0, 100, written::add);
+
+        auditLogger.authenticated(request(), TOKEN);
+        auditLogger.close();
+
+        assertEquals(1, written.size());
+        assertEquals("user-1", written.get(0).userId());
+        assertEquals(SecurityAuditLogger.Outcome.AUTHENTICATED, written.get(0).outcome());
+    }
+
+    @Test
+    void enqueue_ShouldDropAndCount_WhenQueueIsFull() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SecurityAuditLogger auditLogger = new SecurityAuditLogger(meterRegistry, 1.0, 1, event -> {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(event);
+        });
+
+        auditLogger.rejected(request(), "first");
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+        auditLogger.rejected(request(), "queued");
+        auditLogger.rejected(request(), "dropped");
+        auditLogger.rejected(request(), "dropped");
+        release.countDown();
+        auditLogger.close();
+
+        assertEquals(List.of("first", "queued"),
+                written.stream().map(SecurityAuditLogger.AuditEvent::reason).toList());
+        assertEquals(2, meterRegistry.get("gateway.security-audit.dropped").counter().count());
+    }
+
+    private static ServerHttpRequest request() {
+        return MockServerHttpRequest.get("/api/v1/orders").build();
+    }
+}
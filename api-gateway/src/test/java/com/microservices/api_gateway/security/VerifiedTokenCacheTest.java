@@ -0,0 +1,118 @@
+package com.microservices.api_gateway.security;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final String OTHER_SECRET = "another-secret-key-for-jwt-signing-0987654321";
+
+    private JwtUtil jwtUtil;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicReference<Instant> now;
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(new JwtUtil());
+        jwtUtil.setSecret(JwtUtilTest.SECRET);
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicReference<>(Instant.now());
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, meterRegistry, 100, new SettableClock(now));
+    }
+
+    @Test
+    void verify_ShouldCheckSignatureOncePerToken() {
+        String token = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER"), 60_000);
+
+        verifiedTokenCache.verify(token);
+        VerifiedToken result = verifiedTokenCache.verify(token);
+
+        assertThat(result.getUserId()).isEqualTo("user-1");
+        verify(jwtUtil, times(1)).verifyAndDecode(token);
+        assertThat(meterRegistry.get("gateway.verified-tokens.hit.ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    void verify_ShouldEvictEntry_AtTokenExpiry() {
+        String token = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER"), 60_000);
+        verifiedTokenCache.verify(token);
+
+        now.updateAndGet(t -> t.plusSeconds(61));
+        verifiedTokenCache.verify(token);
+
+        verify(jwtUtil, times(2)).verifyAndDecode(token);
+    }
+
+    @Test
+    void verify_ShouldMeasureTimeToLiveOnTheCacheClock() {
+        String token = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER"), 60_000);
+        now.updateAndGet(t -> t.plusSeconds(30));
+        verifiedTokenCache.verify(token);
+
+        // By the cache's clock the token has 30s left, so it must be gone 31s later
+        now.updateAndGet(t -> t.plusSeconds(31));
+        verifiedTokenCache.verify(token);
+
+        verify(jwtUtil, times(2)).verifyAndDecode(token);
+    }
+
+    @Test
+    void verify_ShouldNotCacheRejectedTokens() {
+        String token = JwtUtilTest.token(OTHER_SECRET, List.of("ROLE_USER"), 60_000);
+
+        assertThatThrownBy(() -> verifiedTokenCache.verify(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> verifiedTokenCache.verify(token)).isInstanceOf(JwtException.class);
+
+        verify(jwtUtil, times(2)).verifyAndDecode(token);
+        assertThat(verifiedTokenCache.size()).isZero();
+    }
+
+    @Test
+    void verify_ShouldKeepDistinctTokensApart() {
+        String first = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER"), 60_000);
+        String second = JwtUtilTest.token(JwtUtilTest.SECRET, List.of("ROLE_USER", "ROLE_ADMIN"), 60_000);
+
+        verifiedTokenCache.verify(first);
+
+        assertThat(verifiedTokenCache.verify(second).getRoles()).containsExactly("ROLE_USER", "ROLE_ADMIN");
+        verify(jwtUtil).verifyAndDecode(second);
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private final AtomicReference<Instant> now;
+
+        SettableClock(AtomicReference<Instant> now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.microservices.delivery_service.cache;
+
+import com.microservices.delivery_service.model.Delivery;
+import com.microservices.delivery_service.repository.DeliveryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Memoizes deliveries read during the current HTTP request, so the delivery loaded by the
+ * ownership check in @PreAuthorize is reused by getDeliveryById instead of being queried
+ * and mapped again. Only for read paths: Delivery has no lazy associations, so a cached
+ * instance is safe to map even once detached. Outside a request it simply delegates to the
+ * repository.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeliveryRequestCache {
+
+    private static final String ATTRIBUTE_NAME = DeliveryRequestCache.class.getName() + ".DELIVERIES";
+
+    private final DeliveryRepository deliveryRepository;
+
+    public Optional<Delivery> findById(Long deliveryId) {
+        Map<Long, Delivery> deliveries = requestDeliveries();
+        if (deliveries == null) {
+            return deliveryRepository.findById(deliveryId);
+        }
+
+        Delivery cached = deliveries.get(deliveryId);
+        if (cached != null) {
+            log.debug("Delivery {} served from request cache", deliveryId);
+            return Optional.of(cached);
+        }
+
+        Optional<Delivery> delivery = deliveryRepository.findById(deliveryId);
+        delivery.ifPresent(d -> deliveries.put(deliveryId, d));
+        return delivery;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Delivery> requestDeliveries() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<Long, Delivery> deliveries = (Map<Long, Delivery>) attributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (deliveries == null) {
+            deliveries = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE_NAME, deliveries, RequestAttributes.SCOPE_REQUEST);
+        }
+        return deliveries;
+    }
+}
@@ -30,6 +30,10 @@ public class KafkaProducerConfig {
         configProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        // Keeps broker-side retries from reordering or duplicating the relay's per-key batches
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        // How long a send may block waiting for metadata; must stay below delivery.outbox.send-timeout
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 5000);
 
         return new DefaultKafkaProducerFactory<>(configProps);
     }
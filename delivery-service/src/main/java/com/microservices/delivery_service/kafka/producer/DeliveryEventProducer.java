@@ -1,84 +1,75 @@
 package com.microservices.delivery_service.kafka.producer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.delivery_service.kafka.event.DeliveryCreatedEvent;
 import com.microservices.delivery_service.kafka.event.DeliveryStatusChangedEvent;
 import com.microservices.delivery_service.kafka.event.NotificationEvent;
+import com.microservices.delivery_service.model.OutboxEvent;
+import com.microservices.delivery_service.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.CompletableFuture;
+import java.util.Map;
 
+/**
+ * Queues delivery events in the outbox table as part of the caller's transaction, so an event
+ * is published if and only if the delivery change commits, and the delivery transaction never
+ * waits on the broker. {@link OutboxRelay} publishes the queued events.
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class DeliveryEventProducer {
 
-    private static final String TOPIC = "delivery-created";
-    private static final String NOTIFICATION_TOPIC = "delivery-events";
-    private static final String DELIVERY_STATUS_CHANGED_TOPIC = "delivery-status-changed";
+    static final String TOPIC = "delivery-created";
+    static final String NOTIFICATION_TOPIC = "delivery-events";
+    static final String DELIVERY_STATUS_CHANGED_TOPIC = "delivery-status-changed";
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    // Outbox rows record the event class by simple name so the relay can read the payload back
+    static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            DeliveryCreatedEvent.class.getSimpleName(), DeliveryCreatedEvent.class,
+            DeliveryStatusChangedEvent.class.getSimpleName(), DeliveryStatusChangedEvent.class,
+            NotificationEvent.class.getSimpleName(), NotificationEvent.class);
 
-    public void sendDeliveryCreatedEvent(DeliveryCreatedEvent event) {
-        log.info("Publishing delivery created event: {}", event);
-
-        try {
-            CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(TOPIC, event.getOrderId().toString(), event);
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Event published successfully to topic '{}': orderId={}, deliveryId={}",
-                            TOPIC, event.getOrderId(), event.getDeliveryId());
-                } else {
-                    log.error("Failed to publish event to topic '{}': {}", TOPIC, ex.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.error("Error publishing delivery created event: {}", e.getMessage(), e);
-        }
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void sendDeliveryCreatedEvent(DeliveryCreatedEvent event) {
+        enqueue(TOPIC, event.getOrderId().toString(), event);
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendDeliveryStatusChangedEvent(DeliveryStatusChangedEvent event) {
-        log.info("Publishing delivery status changed event: {}", event);
-
-        try {
-            CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(DELIVERY_STATUS_CHANGED_TOPIC, event.getDeliveryId().toString(), event);
-
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Status change event published successfully to topic '{}': deliveryId={}, status={}",
-                            DELIVERY_STATUS_CHANGED_TOPIC, event.getDeliveryId(), event.getNewStatus());
-                } else {
-                    log.error("Failed to publish status change event to topic '{}': {}",
-                            DELIVERY_STATUS_CHANGED_TOPIC, ex.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.error("Error publishing delivery status changed event: {}", e.getMessage(), e);
-        }
+        enqueue(DELIVERY_STATUS_CHANGED_TOPIC, event.getDeliveryId().toString(), event);
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendNotification(NotificationEvent event) {
-        log.info("Publishing notification event to topic '{}': {}", NOTIFICATION_TOPIC, event);
+        enqueue(NOTIFICATION_TOPIC, event.getDeliveryId(), event);
+    }
 
-        try {
-            CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(NOTIFICATION_TOPIC, event.getDeliveryId(), event);
+    private void enqueue(String topic, String key, Object event) {
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(key)
+                .eventType(event.getClass().getSimpleName())
+                .payload(toJson(event))
+                .build();
+        outboxEventRepository.save(outboxEvent);
 
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Notification event published successfully: {}", event.getEventType());
-                } else {
-                    log.error("Failed to publish notification event: {}", ex.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.error("Error publishing notification event: {}", e.getMessage(), e);
+        log.debug("Queued {} for topic '{}' with key {} in the outbox", outboxEvent.getEventType(), topic, key);
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.getClass().getSimpleName(), e);
         }
     }
 }
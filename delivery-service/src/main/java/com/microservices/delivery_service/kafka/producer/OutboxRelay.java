@@ -0,0 +1,250 @@
+package com.microservices.delivery_service.kafka.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.delivery_service.model.OutboxEvent;
+import com.microservices.delivery_service.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.SerializationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox events in insertion order. Every {@code delivery.outbox.linger} it claims up
+ * to {@code delivery.outbox.batch-size} events in a short transaction, publishes them with no
+ * transaction open, then deletes the acknowledged events and releases the rest in a second
+ * short transaction; full batches are drained back to back. Delivery writes therefore never
+ * wait on a lock held across a broker round-trip.
+ *
+ * <p>Ordering is kept per topic and key: each round sends the next event of every key and waits
+ * for those acks, so an event is only sent once the earlier events for its key are on the
+ * broker. When a send fails, the remaining events for that key are not sent and stay in the
+ * outbox, behind the failed one, while other keys still progress. An event that fails because
+ * its payload cannot be read or serialized, rather than because of the broker, counts a failed
+ * attempt; after {@code delivery.outbox.max-attempts} it is dead-lettered, kept in the table
+ * with {@code deadLetteredAt} set for inspection, and the events behind it go ahead.
+ *
+ * <p>A claim lasts {@code delivery.outbox.claim-timeout}; if the relay dies mid-batch, another
+ * run takes the events over once it expires. No send starts later than
+ * {@code delivery.outbox.send-timeout} before the claim expires, and no ack is waited for past
+ * it; the producer's {@code max.block.ms} must stay below the send timeout so a send blocked on
+ * broker metadata cannot outlast the claim either. Delivery is at-least-once, so every record
+ * carries its outbox id in the {@value #OUTBOX_ID_HEADER} header for consumers to drop the
+ * duplicates a retry or a relay crash can produce.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    public static final String OUTBOX_ID_HEADER = "outbox-event-id";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+    private final int maxAttempts;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${delivery.outbox.batch-size:100}") int batchSize,
+                       @Value("${delivery.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${delivery.outbox.claim-timeout:60s}") Duration claimTimeout,
+                       @Value("${delivery.outbox.max-attempts:5}") int maxAttempts) {
+        if (claimTimeout.compareTo(sendTimeout) <= 0) {
+            throw new IllegalArgumentException("delivery.outbox.claim-timeout must be longer than delivery.outbox.send-timeout");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // No gap locks, so the claim never blocks outbox inserts from delivery transactions
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Scheduled(fixedDelayString = "${delivery.outbox.linger:200ms}")
+    public void relay() {
+        BatchResult result;
+        do {
+            result = publishBatch();
+        } while (result.claimed() == batchSize && result.published() > 0);
+    }
+
+    BatchResult publishBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<OutboxEvent> unpublishable = new ArrayList<>();
+        List<Long> published = publish(batch, System.nanoTime() + claimTimeout.toNanos(), unpublishable);
+
+        Set<Long> settledIds = new HashSet<>(published);
+        List<Long> retried = new ArrayList<>();
+        List<Long> deadLettered = new ArrayList<>();
+        for (OutboxEvent event : unpublishable) {
+            settledIds.add(event.getId());
+            if (event.getFailedAttempts() + 1 >= maxAttempts) {
+                log.error("Dead-lettering outbox event {} ({}) for key {} after {} failed attempts",
+                        event.getId(), event.getEventType(), event.getEventKey(), maxAttempts);
+                deadLettered.add(event.getId());
+            } else {
+                retried.add(event.getId());
+            }
+        }
+        List<Long> unpublished = batch.stream().map(OutboxEvent::getId).filter(id -> !settledIds.contains(id)).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(published);
+            if (!unpublished.isEmpty()) {
+                outboxEventRepository.release(unpublished);
+            }
+            if (!retried.isEmpty()) {
+                outboxEventRepository.recordFailure(retried);
+            }
+            if (!deadLettered.isEmpty()) {
+                outboxEventRepository.deadLetter(deadLettered, LocalDateTime.now());
+            }
+        });
+        log.debug("Published {} of {} outbox events", published.size(), batch.size());
+        return new BatchResult(batch.size(), published.size());
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(Limit.of(batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        // Another relay is publishing the head of the outbox; taking later events would overtake it
+        if (batch.stream().anyMatch(event -> event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now))) {
+            return List.of();
+        }
+        if (!batch.isEmpty()) {
+            outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+        }
+        return batch;
+    }
+
+    private List<Long> publish(List<OutboxEvent> batch, long claimExpiry, List<OutboxEvent> unpublishable) {
+        Map<String, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byKey.computeIfAbsent(event.getTopic() + '/' + event.getEventKey(), key -> new ArrayDeque<>()).add(event);
+        }
+
+        // Stop starting sends early enough for their acks to arrive while the claim still holds
+        long sendDeadline = claimExpiry - sendTimeout.toNanos();
+        List<Long> published = new ArrayList<>(batch.size());
+        while (!byKey.isEmpty() && System.nanoTime() < sendDeadline) {
+            Map<String, CompletableFuture<SendResult<String, Object>>> round = new LinkedHashMap<>();
+            for (Map.Entry<String, Deque<OutboxEvent>> entry : byKey.entrySet()) {
+                // A send can block for up to max.block.ms, so the deadline is checked before each one
+                if (System.nanoTime() >= sendDeadline) {
+                    break;
+                }
+                round.put(entry.getKey(), send(entry.getValue().peek()));
+            }
+            long ackDeadline = Math.min(System.nanoTime() + sendTimeout.toNanos(), claimExpiry);
+
+            Iterator<Map.Entry<String, Deque<OutboxEvent>>> keys = byKey.entrySet().iterator();
+            while (keys.hasNext()) {
+                Map.Entry<String, Deque<OutboxEvent>> entry = keys.next();
+                CompletableFuture<SendResult<String, Object>> ack = round.get(entry.getKey());
+                if (ack == null) {
+                    // The deadline passed before this key's send; it and the keys after it stay unsent
+                    break;
+                }
+                Deque<OutboxEvent> events = entry.getValue();
+                OutboxEvent event = events.peek();
+                try {
+                    ack.get(Math.max(ackDeadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    published.add(event.getId());
+                    events.poll();
+                    if (events.isEmpty()) {
+                        keys.remove();
+                    }
+                } catch (ExecutionException | TimeoutException e) {
+                    if (isUnpublishable(e.getCause())) {
+                        unpublishable.add(event);
+                    }
+                    log.warn("Failed to publish outbox event {} ({}) to '{}', holding back {} events for key {}: {}",
+                            event.getId(), event.getEventType(), event.getTopic(), events.size(), event.getEventKey(),
+                            e.getMessage());
+                    keys.remove();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return published;
+                }
+            }
+        }
+        return published;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            ProducerRecord<String, Object> record =
+                    new ProducerRecord<>(event.getTopic(), event.getEventKey(), toEvent(event));
+            record.headers().add(OUTBOX_ID_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(event.getId()).array());
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Object toEvent(OutboxEvent event) {
+        Class<?> type = DeliveryEventProducer.EVENT_TYPES.get(event.getEventType());
+        if (type == null) {
+            throw new SerializationException("Unknown type " + event.getEventType() + " in outbox event " + event.getId());
+        }
+        try {
+            return objectMapper.readValue(event.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Unreadable payload in outbox event " + event.getId(), e);
+        }
+    }
+
+    /**
+     * Whether the event itself failed, rather than the broker: retrying cannot help unless a
+     * relay that knows its type takes it over.
+     */
+    private static boolean isUnpublishable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SerializationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    record BatchResult(int claimed, int published) {
+    }
+}
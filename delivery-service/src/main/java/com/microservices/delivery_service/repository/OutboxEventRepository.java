@@ -0,0 +1,41 @@
+package com.microservices.delivery_service.repository;
+
+import com.microservices.delivery_service.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Only held for the short claim transaction, so two relays cannot claim the head at once;
+    // the relay runs it at READ_COMMITTED so no gap lock blocks new outbox inserts
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.deadLetteredAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> findNextBatch(Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = :claimedUntil WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL WHERE e.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL, e.failedAttempts = e.failedAttempts + 1 WHERE e.id IN :ids")
+    int recordFailure(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL, e.deadLetteredAt = :deadLetteredAt WHERE e.id IN :ids")
+    int deadLetter(@Param("ids") Collection<Long> ids, @Param("deadLetteredAt") LocalDateTime deadLetteredAt);
+}
@@ -1,20 +1,21 @@
 package com.microservices.delivery_service.security;
 
-import com.microservices.delivery_service.exception.DeliveryNotFoundException;
-import com.microservices.delivery_service.model.dto.DeliveryDto;
-import com.microservices.delivery_service.service.DeliveryService;
+import com.microservices.delivery_service.cache.DeliveryRequestCache;
+import com.microservices.delivery_service.model.Delivery;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DeliverySecurityService {
 
-    private final DeliveryService deliveryService;
+    private final DeliveryRequestCache deliveryRequestCache;
 
 
     public boolean isDeliveryOwner(Long deliveryId) {
@@ -26,21 +27,22 @@ public class DeliverySecurityService {
         String currentUserId = authentication.getName();
 
         try {
-            // 2. Get the delivery details
-            DeliveryDto delivery = deliveryService.findDeliveryById(deliveryId);
+            // 2. Get the delivery, memoized so getDeliveryById reuses it
+            Optional<Delivery> delivery = deliveryRequestCache.findById(deliveryId);
+            if (delivery.isEmpty()) {
+                // If the delivery doesn't exist, they can't be the owner
+                log.warn("Security Check: Delivery not found with ID: {}", deliveryId);
+                return false;
+            }
 
             // 3. Compare the user IDs
-            boolean isOwner = currentUserId.equals(delivery.getUserId());
+            boolean isOwner = currentUserId.equals(delivery.get().getUserId());
             if (!isOwner) {
                 log.warn("Security Check Failed: User '{}' is NOT the owner of delivery '{}'. Owner is '{}'.",
-                        currentUserId, deliveryId, delivery.getUserId());
+                        currentUserId, deliveryId, delivery.get().getUserId());
             }
             return isOwner;
 
-        } catch (DeliveryNotFoundException e) {
-            // If the delivery doesn't exist, they can't be the owner
-            log.warn("Security Check: Delivery not found with ID: {}", deliveryId);
-            return false;
         } catch (Exception e) {
             log.error("Error during security check for deliveryId {}: {}", deliveryId, e.getMessage());
             return false;
@@ -1,5 +1,6 @@
 package com.microservices.delivery_service.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -40,13 +41,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String userId = jwtUtil.extractUserId(token);
+            // One verification yields both the principal and the authorities
+            Claims claims = jwtUtil.extractAllClaims(token);
+            String userId = claims.get("userId", String.class);
 
             UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(
                             userId,
                             null,
-                            jwtUtil.getAuthorities(token)
+                            jwtUtil.getAuthorities(claims)
                     );
 
             SecurityContextHolder.getContext().setAuthentication(authToken);
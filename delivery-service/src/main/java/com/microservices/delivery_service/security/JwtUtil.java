@@ -1,10 +1,13 @@
+// Generated from order-service/src/main/java/com/microservices/order_service/security/JwtUtil.java by scripts/sync-security-copies.sh - edit the source and rerun it.
 package com.microservices.delivery_service.security;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -29,8 +32,21 @@ public class JwtUtil {
     private String secret;
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    // Derived once from the secret; both are immutable and thread-safe
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SecretKey signingKey;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private JwtParser parser;
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
 
@@ -63,38 +79,33 @@ public class JwtUtil {
 
     public Collection<? extends GrantedAuthority> getAuthorities(String token) {
         try {
-            Claims claims = extractAllClaims(token);
-            Object rolesObject = claims.get("roles");
-
-            if (rolesObject instanceof List<?> roles) {
-                return roles.stream()
-                        .filter(role -> role instanceof String)
-                        .map(role -> new SimpleGrantedAuthority((String) role))
-                        .collect(Collectors.toList());
-            }
-            log.warn("No roles found in token, returning empty authorities");
-            return Collections.emptyList();
-
+            return getAuthorities(extractAllClaims(token));
         } catch (Exception e) {
             log.error("Error extracting authorities from token: {}", e.getMessage());
             return Collections.emptyList();
         }
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
+    public Collection<? extends GrantedAuthority> getAuthorities(Claims claims) {
+        Object rolesObject = claims.get("roles");
 
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
+        if (rolesObject instanceof List<?> roles) {
+            return roles.stream()
+                    .filter(role -> role instanceof String)
+                    .map(role -> new SimpleGrantedAuthority((String) role))
+                    .collect(Collectors.toList());
         }
+        log.warn("No roles found in token, returning empty authorities");
+        return Collections.emptyList();
+    }
+
+    /**
+     * Verifies the signature and expiry and returns all claims.
+     *
+     * @throws JwtException if the token is malformed, tampered with or expired
+     */
+    public Claims extractAllClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public Boolean validateToken(String token) {
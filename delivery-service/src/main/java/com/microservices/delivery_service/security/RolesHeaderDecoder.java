@@ -0,0 +1,76 @@
+// Generated from order-service/src/main/java/com/microservices/order_service/security/RolesHeaderDecoder.java by scripts/sync-security-copies.sh - edit the source and rerun it.
+package com.microservices.delivery_service.security;
+
+import com.microservices.delivery_service.model.Role;
+import lombok.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes the gateway's X-User-Roles header into roles and granted authorities. Only a handful
+ * of distinct role combinations exist, so each header value is decoded once and the resulting
+ * immutable role set and authority list are shared by every request carrying it.
+ */
+class RolesHeaderDecoder {
+
+    // Guards against unbounded growth if a caller sends arbitrary header values
+    static final int MAX_CACHED_COMBINATIONS = 64;
+
+    private static final Map<Role, GrantedAuthority> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
+    }
+
+    private final Map<String, DecodedRoles> decoded = new ConcurrentHashMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the header names an unknown role
+     */
+    DecodedRoles decode(String rolesHeader) {
+        DecodedRoles cached = decoded.get(rolesHeader);
+        if (cached != null) {
+            return cached;
+        }
+
+        DecodedRoles roles = parse(rolesHeader);
+        if (decoded.size() < MAX_CACHED_COMBINATIONS) {
+            decoded.putIfAbsent(rolesHeader, roles);
+        }
+        return roles;
+    }
+
+    private static DecodedRoles parse(String rolesHeader) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (String roleName : rolesHeader.split(",")) {
+            String name = roleName.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            roles.add(Role.valueOf(name.startsWith("ROLE_") ? name.substring(5) : name));
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            authorities.add(AUTHORITIES.get(role));
+        }
+        return new DecodedRoles(Collections.unmodifiableSet(roles), List.copyOf(authorities));
+    }
+
+    @Value
+    static class DecodedRoles {
+        Set<Role> roles;
+        List<GrantedAuthority> authorities;
+    }
+}
@@ -1,5 +1,6 @@
 package com.microservices.delivery_service.service.impl;
 
+import com.microservices.delivery_service.cache.DeliveryRequestCache;
 import com.microservices.delivery_service.exception.UserServiceException;
 import com.microservices.delivery_service.feign.UserClient;
 import com.microservices.delivery_service.kafka.event.DeliveryCreatedEvent;
@@ -30,6 +31,7 @@ import java.util.List;
 public class DeliveryServiceImpl implements DeliveryService {
 
     private final DeliveryRepository deliveryRepository;
+    private final DeliveryRequestCache deliveryRequestCache;
     private final OrderClient orderClient;
     private final DeliveryMapper deliveryMapper;
     private final DeliveryEventProducer deliveryEventProducer;
@@ -137,7 +139,7 @@ public class DeliveryServiceImpl implements DeliveryService {
     @Transactional(readOnly = true)
     public DeliveryDto findDeliveryById(Long deliveryId) {
 
-        Delivery delivery = deliveryRepository.findById(deliveryId)
+        Delivery delivery = deliveryRequestCache.findById(deliveryId)
                 .orElseThrow(() -> new DeliveryNotFoundException(deliveryId));
 
         return deliveryMapper.toDto(delivery);
@@ -0,0 +1,70 @@
+package com.microservices.delivery_service.cache;
+
+import com.microservices.delivery_service.model.Delivery;
+import com.microservices.delivery_service.repository.DeliveryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeliveryRequestCacheTest {
+
+    @Mock private DeliveryRepository deliveryRepository;
+
+    private DeliveryRequestCache deliveryRequestCache;
+    private Delivery delivery;
+
+    @BeforeEach
+    void setUp() {
+        deliveryRequestCache = new DeliveryRequestCache(deliveryRepository);
+        delivery = Delivery.builder().deliveryId(1L).userId("user123").orderId(100L).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findById_ShouldQueryOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(deliveryRepository.findById(1L)).thenReturn(Optional.of(delivery));
+
+        deliveryRequestCache.findById(1L);
+        Optional<Delivery> result = deliveryRequestCache.findById(1L);
+
+        assertSame(delivery, result.orElseThrow());
+        verify(deliveryRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findById_ShouldNotCacheMissingDelivery() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(deliveryRepository.findById(99L)).thenReturn(Optional.empty());
+
+        assertTrue(deliveryRequestCache.findById(99L).isEmpty());
+        assertTrue(deliveryRequestCache.findById(99L).isEmpty());
+        verify(deliveryRepository, times(2)).findById(99L);
+    }
+
+    @Test
+    void findById_ShouldDelegate_WhenNoRequestIsBound() {
+        when(deliveryRepository.findById(1L)).thenReturn(Optional.of(delivery));
+
+        deliveryRequestCache.findById(1L);
+        deliveryRequestCache.findById(1L);
+
+        verify(deliveryRepository, times(2)).findById(1L);
+    }
+}
@@ -0,0 +1,218 @@
+package com.microservices.delivery_service.kafka.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.delivery_service.model.OutboxEvent;
+import com.microservices.delivery_service.repository.OutboxEventRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Sort;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.microservices.delivery_service.kafka.producer.OutboxRelayTest.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Kills the relay halfway through a batch, and fails a single send, then checks the records a
+ * consumer reads per key: nothing is lost, no event arrives before an earlier one for its key,
+ * and every duplicate carries the outbox id it can be dropped by.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxCrashRecoveryTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<ProducerRecord<String, Object>> brokerLog = new ArrayList<>();
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private TransactionTemplate tx;
+    private int sends;
+    private int crashAtSend;
+    private int failAtSend;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxEventRepository.deleteAllInBatch();
+        tx = new TransactionTemplate(transactionManager);
+        sends = 0;
+        crashAtSend = -1;
+        failAtSend = -1;
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            int attempt = sends++;
+            if (attempt == crashAtSend) {
+                throw new RelayCrash();
+            }
+            if (attempt == failAtSend) {
+                return CompletableFuture.failedFuture(new IllegalStateException("broker down"));
+            }
+            brokerLog.add(invocation.getArgument(0));
+            return CompletableFuture.<SendResult<String, Object>>completedFuture(null);
+        });
+    }
+
+    @Test
+    @DisplayName("A relay crash mid-batch neither loses events nor lets consumers see them out of key order")
+    void relayCrash_RestartRepublishesEverythingInKeyOrder() {
+        DeliveryEventProducer producer = new DeliveryEventProducer(outboxEventRepository, objectMapper);
+        tx.executeWithoutResult(status -> {
+            producer.sendDeliveryCreatedEvent(created(10L, 1L));
+            producer.sendNotification(notification(1L));
+            producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+            producer.sendDeliveryStatusChangedEvent(statusChanged(11L, 2L));
+            producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+            producer.sendNotification(notification(1L));
+        });
+        List<Long> ids = outboxIds();
+
+        // The first round sends the head of all four keys; the crash hits the second round
+        crashAtSend = 4;
+        assertThrows(RelayCrash.class, () -> relay().relay());
+        assertEquals(6, outboxEventRepository.count(), "the crashed batch must stay in the outbox");
+
+        crashAtSend = -1;
+        relay().relay();
+        assertEquals(4, brokerLog.size(), "a claimed batch must not be taken over before its claim expires");
+
+        // Stands in for claim-timeout passing
+        tx.executeWithoutResult(status -> outboxEventRepository.release(ids));
+        relay().relay();
+        assertEquals(0, outboxEventRepository.count());
+
+        Map<String, List<Long>> seen = consumerView();
+        assertEquals(List.of(ids.get(0), ids.get(0)), seen.get("delivery-created/10"));
+        assertEquals(List.of(ids.get(1), ids.get(1), ids.get(5)), seen.get("delivery-events/1"));
+        assertEquals(List.of(ids.get(2), ids.get(2), ids.get(4)), seen.get("delivery-status-changed/1"));
+        assertEquals(List.of(ids.get(3), ids.get(3)), seen.get("delivery-status-changed/2"));
+        assertKeyOrder(seen, ids);
+    }
+
+    @Test
+    @DisplayName("A failed send holds back the later events for its key until it is retried")
+    void failedSend_LaterEventsForTheKeyWaitForTheRetry() {
+        DeliveryEventProducer producer = new DeliveryEventProducer(outboxEventRepository, objectMapper);
+        tx.executeWithoutResult(status -> {
+            producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+            producer.sendDeliveryStatusChangedEvent(statusChanged(11L, 2L));
+            producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+        });
+        List<Long> ids = outboxIds();
+
+        failAtSend = 0;
+        relay().relay();
+        assertEquals(2, outboxEventRepository.count(), "the failed event and the one behind it must stay");
+        assertEquals(1, brokerLog.size(), "only the other key may progress");
+
+        relay().relay();
+        assertEquals(0, outboxEventRepository.count());
+
+        Map<String, List<Long>> seen = consumerView();
+        assertEquals(List.of(ids.get(0), ids.get(2)), seen.get("delivery-status-changed/1"));
+        assertEquals(List.of(ids.get(1)), seen.get("delivery-status-changed/2"));
+        assertKeyOrder(seen, ids);
+    }
+
+    @Test
+    @DisplayName("An unreadable event is dead-lettered after max-attempts runs and stops holding back its key")
+    void unreadableEvent_IsDeadLetteredAndReleasesItsKey() {
+        DeliveryEventProducer producer = new DeliveryEventProducer(outboxEventRepository, objectMapper);
+        tx.executeWithoutResult(status -> {
+            producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+            producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+        });
+        List<Long> ids = outboxIds();
+        tx.executeWithoutResult(status -> outboxEventRepository.findById(ids.get(0))
+                .ifPresent(event -> event.setPayload("{not json")));
+
+        relay().relay();
+        relay().relay();
+        assertTrue(brokerLog.isEmpty(), "the event behind the unreadable one must wait while it is retried");
+        assertEquals(2, outboxEventRepository.findById(ids.get(0)).orElseThrow().getFailedAttempts());
+
+        relay().relay();
+        OutboxEvent deadLettered = outboxEventRepository.findById(ids.get(0)).orElseThrow();
+        assertNotNull(deadLettered.getDeadLetteredAt());
+        assertNull(deadLettered.getClaimedUntil());
+
+        relay().relay();
+        assertEquals(List.of(ids.get(1)), consumerView().get("delivery-status-changed/1"));
+        assertEquals(List.of(ids.get(0)), outboxIds(), "only the dead-lettered event may stay in the outbox");
+    }
+
+    private OutboxRelay relay() {
+        return new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionManager,
+                10, Duration.ofSeconds(1), Duration.ofSeconds(5), 3);
+    }
+
+    private List<Long> outboxIds() {
+        return outboxEventRepository.findAll(Sort.by("id")).stream().map(OutboxEvent::getId).toList();
+    }
+
+    /**
+     * The outbox ids a consumer reads per topic and key, duplicates included, in broker order.
+     */
+    private Map<String, List<Long>> consumerView() {
+        Map<String, List<Long>> byKey = new LinkedHashMap<>();
+        for (ProducerRecord<String, Object> record : brokerLog) {
+            Header header = record.headers().lastHeader(OutboxRelay.OUTBOX_ID_HEADER);
+            assertNotNull(header, "every record must carry its outbox id");
+            byKey.computeIfAbsent(record.topic() + '/' + record.key(), k -> new ArrayList<>())
+                    .add(ByteBuffer.wrap(header.value()).getLong());
+        }
+        return byKey;
+    }
+
+    /**
+     * A consumer dropping ids it has already seen must read every event exactly once and, per key,
+     * in outbox order.
+     */
+    private static void assertKeyOrder(Map<String, List<Long>> seen, List<Long> ids) {
+        List<Long> delivered = new ArrayList<>();
+        seen.forEach((key, outboxIds) -> {
+            List<Long> deduplicated = outboxIds.stream().distinct().toList();
+            assertEquals(deduplicated.stream().sorted().toList(), deduplicated, "events for " + key + " must stay in order");
+            delivered.addAll(deduplicated);
+        });
+        assertEquals(ids, delivered.stream().sorted().toList(), "no event may be lost");
+    }
+
+    private static class RelayCrash extends Error {
+    }
+}
@@ -0,0 +1,240 @@
+package com.microservices.delivery_service.kafka.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.delivery_service.kafka.event.DeliveryCreatedEvent;
+import com.microservices.delivery_service.kafka.event.DeliveryStatusChangedEvent;
+import com.microservices.delivery_service.kafka.event.NotificationEvent;
+import com.microservices.delivery_service.model.OutboxEvent;
+import com.microservices.delivery_service.repository.OutboxEventRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private DeliveryEventProducer producer;
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        producer = new DeliveryEventProducer(outboxEventRepository, objectMapper);
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionManager,
+                3, Duration.ofSeconds(1), Duration.ofSeconds(5), 3);
+    }
+
+    @Test
+    void producer_ShouldQueueEachEventTypeInsteadOfPublishing() {
+        producer.sendDeliveryCreatedEvent(created(10L, 1L));
+        producer.sendDeliveryStatusChangedEvent(statusChanged(10L, 1L));
+        producer.sendNotification(notification(1L));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(3)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(OutboxEvent::getTopic)
+                .containsExactly("delivery-created", "delivery-status-changed", "delivery-events");
+        assertThat(saved.getAllValues()).extracting(OutboxEvent::getEventKey)
+                .containsExactly("10", "1", "1");
+        assertThat(saved.getAllValues()).extracting(OutboxEvent::getEventType)
+                .containsExactly("DeliveryCreatedEvent", "DeliveryStatusChangedEvent", "NotificationEvent");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishBatch_ShouldSendTypedEventsWithOutboxIdHeader() throws Exception {
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "delivery-created", "10", created(10L, 1L)),
+                        outbox(2L, "delivery-events", "1", notification(1L))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> acked());
+
+        OutboxRelay.BatchResult result = outboxRelay.publishBatch();
+
+        assertThat(result.published()).isEqualTo(2);
+        ArgumentCaptor<ProducerRecord<String, Object>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertThat(records.getAllValues().get(0).value()).isInstanceOf(DeliveryCreatedEvent.class);
+        assertThat(records.getAllValues().get(1).value()).isInstanceOf(NotificationEvent.class);
+        assertThat(records.getAllValues())
+                .allSatisfy(r -> assertThat(r.headers().lastHeader(OutboxRelay.OUTBOX_ID_HEADER)).isNotNull());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishBatch_ShouldNotSendEventsBehindAFailedSendForTheSameKey() throws Exception {
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "delivery-status-changed", "1", statusChanged(10L, 1L)),
+                        outbox(2L, "delivery-status-changed", "2", statusChanged(11L, 2L)),
+                        outbox(3L, "delivery-status-changed", "1", statusChanged(10L, 1L))));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")), acked());
+
+        OutboxRelay.BatchResult result = outboxRelay.publishBatch();
+
+        assertThat(result.published()).isEqualTo(1);
+        ArgumentCaptor<ProducerRecord<String, Object>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertThat(records.getAllValues()).extracting(ProducerRecord::key).containsExactly("1", "2");
+        InOrder inOrder = inOrder(outboxEventRepository);
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L));
+        inOrder.verify(outboxEventRepository).release(List.of(1L, 3L));
+        verify(outboxEventRepository, never()).recordFailure(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishBatch_ShouldCountAFailedAttemptForAnUnreadablePayload() throws Exception {
+        OutboxEvent unreadable = outbox(1L, "delivery-events", "1", notification(1L));
+        unreadable.setEventType("RetiredEvent");
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(unreadable, outbox(2L, "delivery-events", "1", notification(1L))));
+
+        OutboxRelay.BatchResult result = outboxRelay.publishBatch();
+
+        assertThat(result.published()).isZero();
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        verify(outboxEventRepository).recordFailure(List.of(1L));
+        verify(outboxEventRepository).release(List.of(2L));
+        verify(outboxEventRepository, never()).deadLetter(anyCollection(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishBatch_ShouldDeadLetterAnUnreadablePayloadAfterMaxAttempts() throws Exception {
+        OutboxEvent unreadable = outbox(1L, "delivery-events", "1", notification(1L));
+        unreadable.setPayload("{not json");
+        unreadable.setFailedAttempts(2);
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(unreadable, outbox(2L, "delivery-events", "2", notification(2L))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> acked());
+
+        OutboxRelay.BatchResult result = outboxRelay.publishBatch();
+
+        assertThat(result.published()).isEqualTo(1);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L));
+        verify(outboxEventRepository).deadLetter(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository, never()).recordFailure(anyCollection());
+        verify(outboxEventRepository, never()).release(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishBatch_ShouldNotStartSendsThatCouldOutlastTheClaim() throws Exception {
+        // Sends may only start in the first 500ms; each one blocks for 300ms, as on a metadata wait
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionManager,
+                3, Duration.ofSeconds(1), Duration.ofMillis(1500), 3);
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "delivery-events", "1", notification(1L)),
+                        outbox(2L, "delivery-events", "2", notification(2L)),
+                        outbox(3L, "delivery-events", "3", notification(3L))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return acked();
+        });
+
+        OutboxRelay.BatchResult result = outboxRelay.publishBatch();
+
+        assertThat(result.published()).isEqualTo(2);
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).release(List.of(3L));
+    }
+
+    @Test
+    void publishBatch_ShouldLeaveBatchClaimedByAnotherRelayAlone() throws Exception {
+        OutboxEvent claimed = outbox(1L, "delivery-events", "1", notification(1L));
+        claimed.setClaimedUntil(LocalDateTime.now().plusSeconds(30));
+        when(outboxEventRepository.findNextBatch(Limit.of(3))).thenReturn(List.of(claimed));
+
+        assertThat(outboxRelay.publishBatch().published()).isZero();
+        verify(outboxEventRepository, never()).claim(anyCollection(), any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_ShouldDrainFullBatchesBackToBack() throws Exception {
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "delivery-events", "1", notification(1L)),
+                        outbox(2L, "delivery-events", "2", notification(2L)),
+                        outbox(3L, "delivery-events", "3", notification(3L))))
+                .thenReturn(List.of(outbox(4L, "delivery-events", "4", notification(4L))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> acked());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).findNextBatch(Limit.of(3));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L));
+    }
+
+    private OutboxEvent outbox(Long id, String topic, String key, Object event) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic(topic)
+                .eventKey(key)
+                .eventType(event.getClass().getSimpleName())
+                .payload(objectMapper.writeValueAsString(event))
+                .build();
+    }
+
+    static DeliveryCreatedEvent created(Long orderId, Long deliveryId) {
+        return DeliveryCreatedEvent.builder()
+                .orderId(orderId)
+                .deliveryId(deliveryId)
+                .status("PENDING")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    static DeliveryStatusChangedEvent statusChanged(Long orderId, Long deliveryId) {
+        return DeliveryStatusChangedEvent.builder()
+                .orderId(orderId)
+                .deliveryId(deliveryId)
+                .oldStatus("PENDING")
+                .newStatus("SHIPPED")
+                .changedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static NotificationEvent notification(Long deliveryId) {
+        return NotificationEvent.builder()
+                .eventType("DELIVERY_CREATED")
+                .orderId("10")
+                .deliveryId(deliveryId.toString())
+                .userId("user123")
+                .status("PENDING")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static CompletableFuture<SendResult<String, Object>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,132 @@
+package com.microservices.delivery_service.repository;
+
+import com.microservices.delivery_service.cache.DeliveryRequestCache;
+import com.microservices.delivery_service.feign.OrderClient;
+import com.microservices.delivery_service.feign.UserClient;
+import com.microservices.delivery_service.kafka.producer.DeliveryEventProducer;
+import com.microservices.delivery_service.mapper.DeliveryMapper;
+import com.microservices.delivery_service.model.Delivery;
+import com.microservices.delivery_service.model.dto.DeliveryDto;
+import com.microservices.delivery_service.security.DeliverySecurityService;
+import com.microservices.delivery_service.service.DeliveryService;
+import com.microservices.delivery_service.service.impl.DeliveryServiceImpl;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements an owner's GET /deliveries/{id} issues: the ownership check
+ * followed by the handler's lookup, before and after sharing the loaded delivery.
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DeliveryServiceImpl.class, DeliveryMapper.class, DeliveryRequestCache.class, DeliverySecurityService.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliveryQueryCountTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private DeliveryRepository deliveryRepository;
+
+    @Autowired
+    private DeliveryService deliveryService;
+
+    @Autowired
+    private DeliverySecurityService deliverySecurityService;
+
+    @Autowired
+    private DeliveryMapper deliveryMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean private OrderClient orderClient;
+    @MockitoBean private UserClient userClient;
+    @MockitoBean private DeliveryEventProducer deliveryEventProducer;
+
+    private Statistics statistics;
+    private Long deliveryId;
+
+    @BeforeEach
+    void setUp() {
+        deliveryRepository.deleteAll();
+        deliveryId = deliveryRepository.save(Delivery.builder()
+                .userId("user123")
+                .orderId(100L)
+                .build()).getDeliveryId();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("user123", null, "ROLE_USER"));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Owner GET reuses the delivery loaded by the ownership check")
+    void ownerGetDeliveryById_issuesOneStatement() {
+        // The previous flow: the check mapped a full DeliveryDto, then the handler loaded it again
+        DeliveryDto checked = deliveryMapper.toDto(deliveryRepository.findById(deliveryId).orElseThrow());
+        assertEquals("user123", checked.getUserId());
+        deliveryMapper.toDto(deliveryRepository.findById(deliveryId).orElseThrow());
+        long before = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        assertTrue(deliverySecurityService.isDeliveryOwner(deliveryId));
+        DeliveryDto delivery = deliveryService.findDeliveryById(deliveryId);
+        long after = statistics.getPrepareStatementCount();
+
+        log.info("Owner GET /deliveries/{id}: {} statements before, {} after", before, after);
+        assertEquals(deliveryId, delivery.getDeliveryId());
+        assertEquals(2, before);
+        assertEquals(1, after);
+    }
+
+    @Test
+    @DisplayName("Non-owner is rejected after a single statement")
+    void nonOwnerCheck_issuesOneStatement() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("someone-else", null, "ROLE_USER"));
+
+        assertFalse(deliverySecurityService.isDeliveryOwner(deliveryId));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
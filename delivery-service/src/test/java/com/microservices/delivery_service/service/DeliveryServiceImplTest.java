@@ -1,5 +1,6 @@
 package com.microservices.delivery_service.service;
 
+import com.microservices.delivery_service.cache.DeliveryRequestCache;
 import com.microservices.delivery_service.exception.*;
 import com.microservices.delivery_service.feign.OrderClient;
 import com.microservices.delivery_service.feign.UserClient;
@@ -31,6 +32,7 @@ import static org.mockito.Mockito.*;
 class DeliveryServiceImplTest {
 
     @Mock private DeliveryRepository deliveryRepository;
+    @Mock private DeliveryRequestCache deliveryRequestCache;
     @Mock private OrderClient orderClient;
     @Mock private DeliveryMapper deliveryMapper;
     @Mock private DeliveryEventProducer deliveryEventProducer;
@@ -121,7 +123,7 @@ class DeliveryServiceImplTest {
 
     @Test
     void findDeliveryById_ShouldReturnDto() {
-        when(deliveryRepository.findById(1L)).thenReturn(Optional.of(delivery));
+        when(deliveryRequestCache.findById(1L)).thenReturn(Optional.of(delivery));
         when(deliveryMapper.toDto(delivery)).thenReturn(deliveryDto);
 
         DeliveryDto result = deliveryService.findDeliveryById(1L);
@@ -161,7 +163,7 @@ class DeliveryServiceImplTest {
 
     @Test
     void findDeliveryById_ShouldThrow_WhenNotFound() {
-        when(deliveryRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(deliveryRequestCache.findById(anyLong())).thenReturn(Optional.empty());
 
         assertThrows(DeliveryNotFoundException.class, () -> deliveryService.findDeliveryById(99L));
     }
@@ -10,6 +10,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
@@ -25,6 +26,9 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id:notification-group}")
     private String groupId;
 
+    @Value("${notification.listener.max-poll-records:500}")
+    private int maxPollRecords;
+
     @Bean
     public ConsumerFactory<String, NotificationEvent> consumerFactory() {
 
@@ -58,4 +62,22 @@ public class KafkaConsumerConfig {
         );
         return factory;
     }
+
+    /**
+     * Delivers every poll to the listener as one list and commits its offsets once, after the
+     * listener returns; a BatchListenerFailedException commits only the records before the
+     * failed one and redelivers the rest.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> batchKafkaListenerContainerFactory() {
+
+        ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        return factory;
+    }
 }
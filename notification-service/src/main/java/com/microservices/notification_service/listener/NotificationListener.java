@@ -2,24 +2,49 @@ package com.microservices.notification_service.listener;
 
 import com.microservices.notification_service.model.NotificationEvent;
 import com.microservices.notification_service.service.NotificationSenderService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Consumes order and delivery notifications either one record at a time or one poll at a time,
+ * depending on {@code notification.listener.mode} ({@code record} or {@code batch}); only the
+ * listeners of the selected mode are started.
+ */
 @Slf4j
-@RequiredArgsConstructor
 @Service
 public class NotificationListener {
 
+    private static final String RECORD_MODE = "#{'${notification.listener.mode:record}' == 'record'}";
+    private static final String BATCH_MODE = "#{'${notification.listener.mode:record}' == 'batch'}";
+
     private final NotificationSenderService senderService;
+    private final int dispatchConcurrency;
+
+    public NotificationListener(NotificationSenderService senderService,
+                                @Value("${notification.listener.dispatch-concurrency:16}") int dispatchConcurrency) {
+        this.senderService = senderService;
+        this.dispatchConcurrency = dispatchConcurrency;
+    }
 
     // ✅ Listen to Order Events
-    @KafkaListener(topics = "order-events", groupId = "notification-group", containerFactory = "kafkaListenerContainerFactory"
+    @KafkaListener(id = "orderEvents", topics = "order-events", groupId = "notification-group",
+            containerFactory = "kafkaListenerContainerFactory", autoStartup = RECORD_MODE
     )
     public void handleOrderEvent(
             @Payload NotificationEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
@@ -40,9 +65,11 @@ public class NotificationListener {
 
     // ✅ Listen to Delivery Events
     @KafkaListener(
+            id = "deliveryEvents",
             topics = "delivery-events",
             groupId = "notification-group",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            autoStartup = RECORD_MODE
     )
     public void handleDeliveryEvent(@Payload NotificationEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
                                     @Header(KafkaHeaders.RECEIVED_PARTITION) int partition, @Header(KafkaHeaders.OFFSET) long offset, Acknowledgment acknowledgment) {
@@ -58,4 +85,58 @@ public class NotificationListener {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    @KafkaListener(id = "orderEventsBatch", topics = "order-events", groupId = "notification-group",
+            containerFactory = "batchKafkaListenerContainerFactory", autoStartup = BATCH_MODE)
+    public void handleOrderEvents(List<ConsumerRecord<String, NotificationEvent>> records) {
+        dispatch(records);
+    }
+
+    @KafkaListener(id = "deliveryEventsBatch", topics = "delivery-events", groupId = "notification-group",
+            containerFactory = "batchKafkaListenerContainerFactory", autoStartup = BATCH_MODE)
+    public void handleDeliveryEvents(List<ConsumerRecord<String, NotificationEvent>> records) {
+        dispatch(records);
+    }
+
+    /**
+     * Sends a poll's notifications concurrently and returns once all have finished, so the
+     * container commits the whole batch at once. If any fail, the earliest failed record is
+     * reported; the container commits the records before it and redelivers it and everything
+     * after, so notifications after a failure may be sent twice.
+     */
+    void dispatch(List<ConsumerRecord<String, NotificationEvent>> records) {
+        log.debug("📬 Received {} notification events", records.size());
+
+        Semaphore permits = new Semaphore(dispatchConcurrency);
+        List<Future<?>> sends = new ArrayList<>(records.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (ConsumerRecord<String, NotificationEvent> record : records) {
+                sends.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        senderService.sendNotification(record.value());
+                        return null;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            for (int i = 0; i < sends.size(); i++) {
+                try {
+                    sends.get(i).get();
+                } catch (ExecutionException e) {
+                    ConsumerRecord<String, NotificationEvent> failed = records.get(i);
+                    log.error("❌ Failed to process notification from '{}' [partition: {}, offset: {}]: {}",
+                            failed.topic(), failed.partition(), failed.offset(), e.getCause().getMessage(), e.getCause());
+                    throw new BatchListenerFailedException("Failed to process notification", e.getCause(), i);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending notifications", e);
+        }
+
+        log.debug("✅ {} notifications processed successfully", records.size());
+    }
+}
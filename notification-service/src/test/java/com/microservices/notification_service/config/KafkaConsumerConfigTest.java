@@ -0,0 +1,44 @@
+package com.microservices.notification_service.config;
+
+import com.microservices.notification_service.model.NotificationEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaConsumerConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(KafkaConsumerConfig.class);
+
+    @Test
+    @DisplayName("The batch factory hands whole polls of at most max-poll-records to the listener")
+    @SuppressWarnings("unchecked")
+    void batchFactory_ShouldDeliverBoundedPolls() {
+        contextRunner.withPropertyValues("notification.listener.max-poll-records=200").run(context -> {
+            ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
+                    context.getBean("batchKafkaListenerContainerFactory", ConcurrentKafkaListenerContainerFactory.class);
+
+            assertThat(factory.isBatchListener()).isTrue();
+            assertThat(factory.getContainerProperties().getAckMode()).isEqualTo(ContainerProperties.AckMode.BATCH);
+            assertThat(factory.getContainerProperties().getKafkaConsumerProperties()
+                    .getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)).isEqualTo("200");
+        });
+    }
+
+    @Test
+    @DisplayName("The record factory keeps delivering one record at a time")
+    @SuppressWarnings("unchecked")
+    void recordFactory_ShouldNotBeBatchListener() {
+        contextRunner.run(context -> {
+            ConcurrentKafkaListenerContainerFactory<String, NotificationEvent> factory =
+                    context.getBean("kafkaListenerContainerFactory", ConcurrentKafkaListenerContainerFactory.class);
+
+            assertThat(factory.isBatchListener()).isNotEqualTo(Boolean.TRUE);
+        });
+    }
+}
@@ -0,0 +1,87 @@
+package com.microservices.notification_service.listener;
+
+import com.microservices.notification_service.model.NotificationEvent;
+import com.microservices.notification_service.service.NotificationSenderService;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class NotificationListenerTest {
+
+    private final NotificationSenderService senderService = mock(NotificationSenderService.class);
+
+    @Test
+    @DisplayName("A poll is handed to dispatch once and every record in it is sent exactly once")
+    void handleOrderEvents_ShouldDispatchWholePollOnce() {
+        NotificationListener listener = spy(new NotificationListener(senderService, 4));
+        List<ConsumerRecord<String, NotificationEvent>> poll = records(50);
+
+        listener.handleOrderEvents(poll);
+
+        verify(listener, times(1)).dispatch(poll);
+        for (ConsumerRecord<String, NotificationEvent> record : poll) {
+            verify(senderService, times(1)).sendNotification(record.value());
+        }
+    }
+
+    @Test
+    @DisplayName("No more notifications are sent at once than dispatch-concurrency allows")
+    void dispatch_ShouldRespectDispatchConcurrency() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return null;
+        }).when(senderService).sendNotification(any());
+
+        new NotificationListener(senderService, 3).dispatch(records(30));
+
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("A failed send is reported at the index of the earliest failed record")
+    void dispatch_ShouldReportEarliestFailedRecord() {
+        List<ConsumerRecord<String, NotificationEvent>> poll = records(10);
+        doAnswer(invocation -> {
+            throw new IllegalStateException("mail server down");
+        }).when(senderService).sendNotification(argThat(event ->
+                event.getOrderId().equals("3") || event.getOrderId().equals("7")));
+
+        BatchListenerFailedException failure = catchThrowableOfType(BatchListenerFailedException.class,
+                () -> new NotificationListener(senderService, 4).dispatch(poll));
+
+        assertThat(failure.getIndex()).isEqualTo(3);
+        assertThat(failure.getCause()).hasMessage("mail server down");
+        verify(senderService, times(10)).sendNotification(any());
+    }
+
+    private static List<ConsumerRecord<String, NotificationEvent>> records(int count) {
+        List<ConsumerRecord<String, NotificationEvent>> records = new ArrayList<>(count);
+        IntStream.range(0, count).forEach(i -> records.add(new ConsumerRecord<>("order-events", 0, i,
+                String.valueOf(i), NotificationEvent.builder()
+                .eventType("ORDER_CREATED")
+                .orderId(String.valueOf(i))
+                .userId("user-1")
+                .build())));
+        return records;
+    }
+}
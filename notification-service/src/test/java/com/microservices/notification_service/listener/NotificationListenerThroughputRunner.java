@@ -0,0 +1,155 @@
+package com.microservices.notification_service.listener;
+
+import com.microservices.notification_service.NotificationServiceApplication;
+import com.microservices.notification_service.model.NotificationEvent;
+import com.microservices.notification_service.service.NotificationSenderService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained order-event throughput against an embedded broker, first with the per-record
+ * listener and then with the batch listener, with every notification send costing a simulated
+ * mail-server round-trip. Each run only counts the events it produced itself.
+ *
+ * <p>Not part of the test suite, since the rates depend on the machine; run {@link #main} with
+ * the test classpath. What the batch listener hands to {@code dispatch} is covered by
+ * {@link NotificationListenerTest}.
+ */
+@Slf4j
+public class NotificationListenerThroughputRunner {
+
+    private static final int MESSAGES = 2_000;
+    private static final long SEND_MILLIS = 2;
+
+    private final EmbeddedKafkaBroker broker;
+    private final KafkaListenerEndpointRegistry registry;
+    private final CountingSenderService senderService;
+
+    private NotificationListenerThroughputRunner(EmbeddedKafkaBroker broker, ConfigurableApplicationContext context) {
+        this.broker = broker;
+        this.registry = context.getBean(KafkaListenerEndpointRegistry.class);
+        this.senderService = context.getBean(CountingSenderService.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaKraftBroker(1, 3, "order-events", "delivery-events");
+        broker.afterPropertiesSet();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                NotificationServiceApplication.class, Config.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "spring.cloud.config.enabled=false",
+                        "eureka.client.enabled=false",
+                        "notification.listener.mode=none",
+                        "logging.level.com.microservices.notification_service=WARN")
+                .run(args)) {
+            NotificationListenerThroughputRunner runner = new NotificationListenerThroughputRunner(broker, context);
+            double recordRate = runner.run("orderEvents", "RECORD");
+            double batchRate = runner.run("orderEventsBatch", "BATCH");
+
+            log.warn("order-events throughput for {} messages: record mode {} msg/s, batch mode {} msg/s",
+                    MESSAGES, Math.round(recordRate), Math.round(batchRate));
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private double run(String listenerId, String runId) throws Exception {
+        senderService.expect(runId, MESSAGES);
+        produce(runId);
+
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        long start = System.nanoTime();
+        container.start();
+        try {
+            if (!senderService.await(60, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Not all " + runId + " notifications were sent within 60s");
+            }
+            return MESSAGES / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            container.stop();
+        }
+    }
+
+    private void produce(String runId) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(props);
+        try {
+            KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+            for (int i = 0; i < MESSAGES; i++) {
+                template.send("order-events", String.valueOf(i), NotificationEvent.builder()
+                        .eventType(runId)
+                        .orderId(String.valueOf(i))
+                        .userId("user-1")
+                        .message("Order created")
+                        .status("PENDING")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+            }
+            template.flush();
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        @Primary
+        CountingSenderService countingSenderService() {
+            return new CountingSenderService();
+        }
+    }
+
+    static class CountingSenderService extends NotificationSenderService {
+
+        private volatile String runId;
+        private volatile CountDownLatch remaining = new CountDownLatch(0);
+
+        void expect(String runId, int messages) {
+            this.runId = runId;
+            this.remaining = new CountDownLatch(messages);
+        }
+
+        boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return remaining.await(timeout, unit);
+        }
+
+        @Override
+        public void sendNotification(NotificationEvent event) {
+            try {
+                Thread.sleep(SEND_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (runId.equals(event.getEventType())) {
+                remaining.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.microservices.order_service.cache;
+
+import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Memoizes orders loaded during the current HTTP request, so the order fetched by the
+ * ownership check in @PreAuthorize is reused by the controller handler instead of being
+ * queried again. Outside a request (Kafka listeners, async threads) it simply delegates
+ * to the repository.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderRequestCache {
+
+    private static final String ATTRIBUTE_NAME = OrderRequestCache.class.getName() + ".ORDERS";
+
+    private final OrderRepository orderRepository;
+    private final EntityManager entityManager;
+
+    public Optional<Orders> findWithItemsByOrderId(Long orderId) {
+        Map<Long, Orders> orders = requestOrders();
+        if (orders == null) {
+            return orderRepository.findWithItemsByOrderId(orderId);
+        }
+
+        // Only reuse the entity while it is still managed by the current persistence context
+        Orders cached = orders.get(orderId);
+        if (cached != null && entityManager.contains(cached)) {
+            log.debug("Order {} served from request cache", orderId);
+            return Optional.of(cached);
+        }
+
+        Optional<Orders> order = orderRepository.findWithItemsByOrderId(orderId);
+        order.ifPresent(o -> orders.put(orderId, o));
+        return order;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Orders> requestOrders() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+
+        Map<Long, Orders> orders = (Map<Long, Orders>) attributes.getAttribute(ATTRIBUTE_NAME, RequestAttributes.SCOPE_REQUEST);
+        if (orders == null) {
+            orders = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE_NAME, orders, RequestAttributes.SCOPE_REQUEST);
+        }
+        return orders;
+    }
+}
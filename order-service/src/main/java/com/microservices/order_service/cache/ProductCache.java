@@ -0,0 +1,89 @@
+package com.microservices.order_service.cache;
+
+import com.microservices.order_service.feign.ProductClient;
+import com.microservices.order_service.model.dto.ProductDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read-through cache in front of {@link ProductClient} lookups. Entries are bounded and expire
+ * by the {@code spring.cache.caffeine.spec}, and are evicted early when product-service
+ * publishes a product-changed event.
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    public static final String CACHE_NAME = "products";
+
+    private final ProductClient productClient;
+    private final Cache cache;
+    private final Counter invalidations;
+
+    public ProductCache(ProductClient productClient, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.productClient = productClient;
+        this.cache = cacheManager.getCache(CACHE_NAME);
+        if (this.cache == null) {
+            throw new IllegalStateException("Cache '" + CACHE_NAME + "' is not configured");
+        }
+        this.invalidations = Counter.builder("product.cache.invalidations")
+                .description("Product cache entries evicted by product-changed events")
+                .register(meterRegistry);
+    }
+
+    public ProductDto getProductById(Long productId) {
+        ProductDto cached = cache.get(productId, ProductDto.class);
+        if (cached != null) {
+            return cached;
+        }
+        ProductDto product = productClient.getProductById(productId);
+        put(product);
+        return product;
+    }
+
+    /**
+     * Serves cached products and fetches all misses with a single bulk call.
+     * Products unknown to product-service are simply absent from the result.
+     */
+    public List<ProductDto> getProductsByIds(List<Long> productIds) {
+        List<ProductDto> products = new ArrayList<>(productIds.size());
+        List<Long> misses = new ArrayList<>();
+
+        for (Long productId : productIds) {
+            ProductDto cached = cache.get(productId, ProductDto.class);
+            if (cached != null) {
+                products.add(cached);
+            } else {
+                misses.add(productId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<ProductDto> loaded = productClient.getProductsByIds(misses);
+            if (loaded != null) {
+                loaded.forEach(this::put);
+                products.addAll(loaded);
+            }
+        }
+        return products;
+    }
+
+    public void put(ProductDto product) {
+        if (product != null && product.getProductId() != null) {
+            cache.put(product.getProductId(), product);
+        }
+    }
+
+    public void evict(Long productId) {
+        cache.evict(productId);
+        invalidations.increment();
+        log.debug("Evicted product {} from cache", productId);
+    }
+}
@@ -0,0 +1,13 @@
+package com.microservices.order_service.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Caffeine cache manager configured under {@code spring.cache}. Caches listed in
+ * {@code spring.cache.cache-names} are bound to the Prometheus registry at startup.
+ */
+@EnableCaching
+@Configuration
+public class CacheConfig {
+}
@@ -2,10 +2,12 @@ package com.microservices.order_service.config;
 
 import com.microservices.order_service.kafka.event.DeliveryCreatedEvent;
 import com.microservices.order_service.kafka.event.DeliveryStatusChangedEvent;
+import com.microservices.order_service.kafka.event.ProductChangedEvent;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +19,7 @@ import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -28,6 +31,10 @@ public class KafkaConsumerConfig {
     private String bootstrapServers;
     private String groupId;
 
+    // Consumer threads per delivery topic; threads beyond the partition count stay idle
+    @Value("${order.delivery-events.concurrency:1}")
+    private int deliveryEventsConcurrency;
+
     @Bean
     public ConsumerFactory<String, DeliveryCreatedEvent> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -58,8 +65,10 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, DeliveryCreatedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(deliveryEventsConcurrency);
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(
-                org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL
+                org.springframework.kafka.listener.ContainerProperties.AckMode.BATCH
         );
         return factory;
     }
@@ -92,9 +101,43 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, DeliveryStatusChangedEvent> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(deliveryStatusConsumerFactory());
+        factory.setConcurrency(deliveryEventsConcurrency);
+        factory.setBatchListener(true);
         factory.getContainerProperties().setAckMode(
-                org.springframework.kafka.listener.ContainerProperties.AckMode.MANUAL
+                org.springframework.kafka.listener.ContainerProperties.AckMode.BATCH
         );
         return factory;
     }
+
+    @Bean
+    public ConsumerFactory<String, ProductChangedEvent> productChangedConsumerFactory() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // Cache invalidations must reach every instance, so each one gets its own group
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-product-cache-" + UUID.randomUUID());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, ProductChangedEvent.class);
+
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new JsonDeserializer<>(ProductChangedEvent.class, false)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductChangedEvent> productChangedKafkaListenerContainerFactory() {
+
+        ConcurrentKafkaListenerContainerFactory<String, ProductChangedEvent> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(productChangedConsumerFactory());
+        return factory;
+    }
 }
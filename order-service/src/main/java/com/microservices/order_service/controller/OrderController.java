@@ -1,6 +1,9 @@
 package com.microservices.order_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.order_service.model.dto.DeliveryDto;
+import com.microservices.order_service.model.dto.OrderFilterDto;
+import com.microservices.order_service.model.dto.OrderPageDto;
 import com.microservices.order_service.model.dto.OrderRequestDto;
 import com.microservices.order_service.model.dto.OrderResponseDto;
 import com.microservices.order_service.service.OrderService;
@@ -15,10 +18,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -28,7 +35,10 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class OrderController {
 
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @PreAuthorize("hasRole('USER')")
     @PostMapping
@@ -73,7 +83,8 @@ public class OrderController {
 
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ORDER_ADMIN')")
     @GetMapping
-    @Operation(summary = "Get All Orders",description = "Only SUPER_ADMIN and ORDER_ADMIN can see all orders")
+    @Operation(summary = "Get All Orders",description = "Only SUPER_ADMIN and ORDER_ADMIN can see all orders. Keyset paginated by orderId; " +
+            "pass the X-Next-After-Id response header as afterId to fetch the next page")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "All Orders Found",
@@ -82,12 +93,55 @@ public class OrderController {
                             array = @ArraySchema(schema = @Schema(implementation = OrderResponseDto.class))
                     )
             ),
+            @ApiResponse(responseCode = "400",description = "Bad Request",content = @Content),
+            @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
+            @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content)
+    })
+    public ResponseEntity<List<OrderResponseDto>> findAllOrders(
+            OrderFilterDto filter,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        OrderPageDto page = orderService.findAllOrders(filter, afterId, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextAfterId() != null) {
+            response.header(NEXT_AFTER_ID_HEADER, page.getNextAfterId().toString());
+        }
+        return response.body(page.getOrders());
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ORDER_ADMIN')")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export Orders",description = "Streams every matching order as newline-delimited JSON. Only SUPER_ADMIN and ORDER_ADMIN can export")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Orders Exported",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = OrderResponseDto.class)
+                    )
+            ),
             @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
             @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content)
     })
-    public ResponseEntity<List<OrderResponseDto>> findAllOrders() {
-        List<OrderResponseDto> orders = orderService.findAllOrders();
-        return ResponseEntity.ok(orders);
+    public ResponseEntity<StreamingResponseBody> exportOrders(OrderFilterDto filter) {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                orderService.exportOrders(filter, order -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(order));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ORDER_ADMIN') or @orderSecurityService.isOrderOwner(#orderId)")
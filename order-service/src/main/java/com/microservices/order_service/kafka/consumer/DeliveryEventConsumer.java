@@ -5,79 +5,153 @@ import com.microservices.order_service.kafka.event.DeliveryStatusChangedEvent;
 import com.microservices.order_service.model.Orders;
 import com.microservices.order_service.model.Status;
 import com.microservices.order_service.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.Acknowledgment;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Applies delivery events to orders, committing offsets once the whole poll has been applied.
+ * With {@code order.delivery-events.bulk-writes} a poll is applied in one transaction: one
+ * lookup for all affected orders and one JDBC batch of updates. Otherwise, and whenever the
+ * bulk transaction fails, the poll is spread over a {@link KeyOrderedProcessor} keyed by order
+ * id, so events for one order are applied in order, each in its own transaction, while
+ * different orders are updated in parallel.
+ */
 @Slf4j
-@RequiredArgsConstructor
 @Component
 public class DeliveryEventConsumer {
 
     private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final KeyOrderedProcessor processor;
+    private final boolean bulkWrites;
+
+    public DeliveryEventConsumer(OrderRepository orderRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${order.delivery-events.parallelism:4}") int parallelism,
+                                 @Value("${order.delivery-events.bulk-writes:true}") boolean bulkWrites) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.processor = new KeyOrderedProcessor(parallelism);
+        this.bulkWrites = bulkWrites;
+    }
 
     @KafkaListener(topics = "delivery-created", groupId = "${spring.kafka.consumer.group-id:order-service-group}",
             containerFactory = "kafkaListenerContainerFactory")
-    @Transactional
-    public void consumeDeliveryCreatedEvent(@Payload DeliveryCreatedEvent event, @Header(KafkaHeaders.RECEIVED_TOPIC) String topic, @Header(KafkaHeaders.RECEIVED_PARTITION) int partition, @Header(KafkaHeaders.OFFSET) long offset, Acknowledgment acknowledgment) {
+    public void consumeDeliveryCreatedEvents(List<ConsumerRecord<String, DeliveryCreatedEvent>> records) {
+        log.debug("Received {} delivery created events", records.size());
+        if (bulkWrites && applyInBulk(records, event -> true, DeliveryCreatedEvent::getOrderId,
+                (order, event) -> order.setDeliveryId(event.getDeliveryId()))) {
+            return;
+        }
+        processor.process(records, record -> record.value().getOrderId(), this::consumeDeliveryCreatedEvent);
+    }
+
+    @KafkaListener(
+            topics = "delivery-status-changed",
+            groupId = "${spring.kafka.consumer.group-id:order-service-group}",
+            containerFactory = "deliveryStatusKafkaListenerContainerFactory"
+    )
+    public void consumeDeliveryStatusChangedEvents(List<ConsumerRecord<String, DeliveryStatusChangedEvent>> records) {
+        log.debug("Received {} delivery status changes", records.size());
+        if (bulkWrites && applyInBulk(records, event -> "DELIVERED".equals(event.getNewStatus()),
+                DeliveryStatusChangedEvent::getOrderId, (order, event) -> order.setStatus(Status.DELIVERED))) {
+            return;
+        }
+        processor.process(records, record -> record.value().getOrderId(), this::consumeDeliveryStatusChanged);
+    }
+
+    /**
+     * Applies the relevant events of a poll, in poll order, to orders loaded with one query,
+     * in one transaction whose commit flushes the changes as a single JDBC batch.
+     *
+     * @return false if the transaction rolled back, e.g. because an order is missing, so the
+     * caller can apply the events one by one and report the failing record
+     */
+    private <E> boolean applyInBulk(List<ConsumerRecord<String, E>> records, Predicate<E> relevant,
+                                    Function<E, Long> orderIdOf, BiConsumer<Orders, E> update) {
+        List<E> events = records.stream().map(ConsumerRecord::value).filter(relevant).toList();
+        if (events.isEmpty()) {
+            return true;
+        }
+
+        try {
+            int updated = transactionTemplate.execute(status -> {
+                Set<Long> orderIds = events.stream().map(orderIdOf).collect(Collectors.toSet());
+                Map<Long, Orders> orders = orderRepository.findAllById(orderIds).stream()
+                        .collect(Collectors.toMap(Orders::getOrderId, Function.identity()));
+                if (orders.size() != orderIds.size()) {
+                    throw new IllegalStateException((orderIds.size() - orders.size()) + " orders not found");
+                }
+                // The orders are managed, so the commit writes every change without a save call
+                events.forEach(event -> update.accept(orders.get(orderIdOf.apply(event)), event));
+                return orders.size();
+            });
+
+            log.info("Applied {} delivery events to {} orders", events.size(), updated);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Bulk update of {} delivery events failed, applying them one by one: {}",
+                    events.size(), e.getMessage());
+            return false;
+        }
+    }
 
+    void consumeDeliveryCreatedEvent(ConsumerRecord<String, DeliveryCreatedEvent> record) {
+        DeliveryCreatedEvent event = record.value();
         log.info("Received delivery created event from topic '{}' [partition: {}, offset: {}]: {}",
-                topic, partition, offset, event);
+                record.topic(), record.partition(), record.offset(), event);
 
         try {
-            Orders order = orderRepository.findById(event.getOrderId())
-                    .orElseThrow(() -> new RuntimeException("Order not found with ID: " + event.getOrderId()));
+            transactionTemplate.executeWithoutResult(status -> {
+                Orders order = orderRepository.findById(event.getOrderId())
+                        .orElseThrow(() -> new RuntimeException("Order not found with ID: " + event.getOrderId()));
 
-            order.setDeliveryId(event.getDeliveryId());
-            orderRepository.save(order);
+                order.setDeliveryId(event.getDeliveryId());
+                orderRepository.save(order);
+            });
 
             log.info("Successfully updated order {} with delivery ID {}",
                     event.getOrderId(), event.getDeliveryId());
 
-            acknowledgment.acknowledge();
-
         } catch (Exception e) {
             log.error("Error processing delivery created event: {}", e.getMessage(), e);
             throw e;
         }
     }
 
-    @KafkaListener(
-            topics = "delivery-status-changed",
-            groupId = "${spring.kafka.consumer.group-id:order-service-group}",
-            containerFactory = "deliveryStatusKafkaListenerContainerFactory"
-    )
-    @Transactional
-    public void consumeDeliveryStatusChanged(@Payload DeliveryStatusChangedEvent event,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
-            @Header(KafkaHeaders.OFFSET) long offset,
-            Acknowledgment acknowledgment) {
-
+    void consumeDeliveryStatusChanged(ConsumerRecord<String, DeliveryStatusChangedEvent> record) {
+        DeliveryStatusChangedEvent event = record.value();
         log.info("Received delivery status change from topic '{}' [partition: {}, offset: {}]: deliveryId={}, status: {} → {}",
-                topic, partition, offset, event.getDeliveryId(), event.getOldStatus(), event.getNewStatus());
+                record.topic(), record.partition(), record.offset(), event.getDeliveryId(), event.getOldStatus(), event.getNewStatus());
 
         try {
             if ("DELIVERED".equals(event.getNewStatus())) {
-                Orders order = orderRepository.findById(event.getOrderId())
-                        .orElseThrow(() -> new RuntimeException("Order not found for status update: " + event.getOrderId()));
+                transactionTemplate.executeWithoutResult(status -> {
+                    Orders order = orderRepository.findById(event.getOrderId())
+                            .orElseThrow(() -> new RuntimeException("Order not found for status update: " + event.getOrderId()));
 
-                order.setStatus(Status.DELIVERED);
-                orderRepository.save(order);
+                    order.setStatus(Status.DELIVERED);
+                    orderRepository.save(order);
+                });
                 log.info("Order {} marked as DELIVERED", event.getOrderId());
             }
 
-            acknowledgment.acknowledge();
-
         } catch (Exception e) {
             log.error("Error processing delivery status change: {}", e.getMessage(), e);
             throw e;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.microservices.order_service.kafka.consumer;
+
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processes a polled batch on up to {@code parallelism} lanes, hashing each item's key to a lane
+ * so items with the same key run one after another in batch order while different keys run in
+ * parallel; a container thread can therefore use more threads than it has partitions.
+ *
+ * <p>Once an item fails, the later items with the same key are skipped. After every lane has
+ * finished, the earliest failed item is reported as a {@link BatchListenerFailedException}, so
+ * the container commits the items before it and redelivers the rest.
+ */
+public class KeyOrderedProcessor {
+
+    private final int parallelism;
+
+    public KeyOrderedProcessor(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be at least 1, was " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public <T> void process(List<T> items, Function<? super T, ?> keyOf, Consumer<? super T> action) {
+        Map<Integer, List<Integer>> lanes = new TreeMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            int lane = Math.floorMod(Objects.hashCode(keyOf.apply(items.get(i))), parallelism);
+            lanes.computeIfAbsent(lane, l -> new ArrayList<>()).add(i);
+        }
+
+        Map<Integer, RuntimeException> failures = new ConcurrentSkipListMap<>();
+        if (lanes.size() == 1) {
+            runLane(items, lanes.values().iterator().next(), keyOf, action, failures);
+        } else {
+            runLanes(items, lanes, keyOf, action, failures);
+        }
+
+        if (!failures.isEmpty()) {
+            Map.Entry<Integer, RuntimeException> earliest = failures.entrySet().iterator().next();
+            throw new BatchListenerFailedException(earliest.getValue().getMessage(), earliest.getValue(), earliest.getKey());
+        }
+    }
+
+    private <T> void runLanes(List<T> items, Map<Integer, List<Integer>> lanes, Function<? super T, ?> keyOf,
+                              Consumer<? super T> action, Map<Integer, RuntimeException> failures) {
+        List<Future<?>> running = new ArrayList<>(lanes.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<Integer> lane : lanes.values()) {
+                running.add(executor.submit(() -> runLane(items, lane, keyOf, action, failures)));
+            }
+            for (Future<?> lane : running) {
+                lane.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Lane failed outside of item processing", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing batch", e);
+        }
+    }
+
+    private static <T> void runLane(List<T> items, List<Integer> lane, Function<? super T, ?> keyOf,
+                                    Consumer<? super T> action, Map<Integer, RuntimeException> failures) {
+        Set<Object> failedKeys = new HashSet<>();
+        for (int index : lane) {
+            T item = items.get(index);
+            Object key = keyOf.apply(item);
+            if (failedKeys.contains(key)) {
+                continue;
+            }
+            try {
+                action.accept(item);
+            } catch (RuntimeException e) {
+                failures.put(index, e);
+                failedKeys.add(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.microservices.order_service.kafka.consumer;
+
+import com.microservices.order_service.cache.ProductCache;
+import com.microservices.order_service.kafka.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ProductChangedEventConsumer {
+
+    static final String STOCK_CHANGED = "STOCK_CHANGED";
+
+    private final ProductCache productCache;
+
+    // No groupId here: every instance consumes under its own group so each local cache is evicted
+    @KafkaListener(topics = "product-changed", containerFactory = "productChangedKafkaListenerContainerFactory")
+    public void consumeProductChangedEvent(@Payload ProductChangedEvent event) {
+        log.info("Received product changed event: productId={}, changeType={}",
+                event.getProductId(), event.getChangeType());
+
+        // Orders only read price and name from the cache; stock changes with every order and would empty it
+        if (event.getProductId() != null && !STOCK_CHANGED.equals(event.getChangeType())) {
+            productCache.evict(event.getProductId());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservices.order_service.kafka.event;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@ToString
+public class ProductChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long productId;
+    private String changeType;
+    private BigDecimal productPrice;
+    private LocalDateTime changedAt;
+}
@@ -1,39 +1,49 @@
 package com.microservices.order_service.kafka.producer;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.order_service.kafka.event.NotificationEvent;
+import com.microservices.order_service.model.OutboxEvent;
+import com.microservices.order_service.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
-
-import java.util.concurrent.CompletableFuture;
-
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Queues notification events in the outbox table as part of the caller's transaction, so an
+ * event is published if and only if the order change commits, and the order transaction never
+ * waits on the broker. {@link OutboxRelay} publishes the queued events to {@value #TOPIC}.
+ */
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class NotificationEventProducer {
 
-    private static final String TOPIC = "order-events";
+    static final String TOPIC = "order-events";
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendNotification(NotificationEvent event) {
-        log.info("Publishing notification event to topic '{}': {}", TOPIC, event);
+        OutboxEvent outboxEvent = OutboxEvent.builder()
+                .topic(TOPIC)
+                .eventKey(event.getOrderId())
+                .eventType(event.getEventType())
+                .payload(toJson(event))
+                .build();
+        outboxEventRepository.save(outboxEvent);
+
+        log.debug("Queued {} event for order {} in the outbox", event.getEventType(), event.getOrderId());
+    }
 
+    private String toJson(NotificationEvent event) {
         try {
-            CompletableFuture<SendResult<String, Object>> future =
-                    kafkaTemplate.send(TOPIC, event.getOrderId(), event);
-
-            future.whenComplete((result, ex) -> {
-                if (ex == null) {
-                    log.info("Notification event published successfully: {}", event.getEventType());
-                } else {
-                    log.error("Failed to publish notification event: {}", ex.getMessage());
-                }
-            });
-        } catch (Exception e) {
-            log.error("Error publishing notification event: {}", e.getMessage(), e);
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification event for order " + event.getOrderId(), e);
         }
     }
 }
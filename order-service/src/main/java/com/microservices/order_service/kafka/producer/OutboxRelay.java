@@ -0,0 +1,204 @@
+package com.microservices.order_service.kafka.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.order_service.kafka.event.NotificationEvent;
+import com.microservices.order_service.model.OutboxEvent;
+import com.microservices.order_service.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox events in insertion order. Every {@code order.outbox.linger} it claims up to
+ * {@code order.outbox.batch-size} events in a short transaction, publishes them with no
+ * transaction open, then deletes the acknowledged events and releases the rest in a second
+ * short transaction; full batches are drained back to back. Order writes therefore never wait
+ * on a lock held across a broker round-trip.
+ *
+ * <p>The batch is sent in rounds: each round sends the next event of every order key and waits
+ * for those acks, so an event is only sent once the earlier events for its key are on the
+ * broker. When a send fails, the remaining events for that key are not sent and stay in the
+ * outbox, behind the failed one, for the next run.
+ *
+ * <p>A claim lasts {@code order.outbox.claim-timeout}; if the relay dies mid-batch, another
+ * run takes the events over once it expires. No send starts later than
+ * {@code order.outbox.send-timeout} before the claim expires, and no ack is waited for past it;
+ * the producer's {@code max.block.ms} must stay below the send timeout so a send blocked on
+ * broker metadata cannot outlast the claim either. Delivery is at-least-once, so every record
+ * carries its outbox id in the {@value #OUTBOX_ID_HEADER} header for consumers to drop the
+ * duplicates a retry or a relay crash can produce.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    public static final String OUTBOX_ID_HEADER = "outbox-event-id";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTimeout;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${order.outbox.batch-size:100}") int batchSize,
+                       @Value("${order.outbox.send-timeout:10s}") Duration sendTimeout,
+                       @Value("${order.outbox.claim-timeout:60s}") Duration claimTimeout) {
+        if (claimTimeout.compareTo(sendTimeout) <= 0) {
+            throw new IllegalArgumentException("order.outbox.claim-timeout must be longer than order.outbox.send-timeout");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // No gap locks, so the claim never blocks outbox inserts from order transactions
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.linger:200ms}")
+    public void relay() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == batchSize);
+    }
+
+    /**
+     * @return the number of events published and removed from the outbox
+     */
+    int publishBatch() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> published = publish(batch, System.nanoTime() + claimTimeout.toNanos());
+
+        Set<Long> publishedIds = new HashSet<>(published);
+        List<Long> unpublished = batch.stream().map(OutboxEvent::getId).filter(id -> !publishedIds.contains(id)).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(published);
+            if (!unpublished.isEmpty()) {
+                outboxEventRepository.release(unpublished);
+            }
+        });
+        log.debug("Published {} of {} outbox events", published.size(), batch.size());
+        return published.size();
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(Limit.of(batchSize));
+        LocalDateTime now = LocalDateTime.now();
+        // Another relay is publishing the head of the outbox; taking later events would overtake it
+        if (batch.stream().anyMatch(event -> event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now))) {
+            return List.of();
+        }
+        if (!batch.isEmpty()) {
+            outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), now.plus(claimTimeout));
+        }
+        return batch;
+    }
+
+    private List<Long> publish(List<OutboxEvent> batch, long claimExpiry) {
+        Map<String, Deque<OutboxEvent>> byKey = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byKey.computeIfAbsent(event.getTopic() + '/' + event.getEventKey(), key -> new ArrayDeque<>()).add(event);
+        }
+
+        // Stop starting sends early enough for their acks to arrive while the claim still holds
+        long sendDeadline = claimExpiry - sendTimeout.toNanos();
+        List<Long> published = new ArrayList<>(batch.size());
+        while (!byKey.isEmpty() && System.nanoTime() < sendDeadline) {
+            Map<String, CompletableFuture<SendResult<String, Object>>> round = new LinkedHashMap<>();
+            for (Map.Entry<String, Deque<OutboxEvent>> entry : byKey.entrySet()) {
+                // A send can block for up to max.block.ms, so the deadline is checked before each one
+                if (System.nanoTime() >= sendDeadline) {
+                    break;
+                }
+                round.put(entry.getKey(), send(entry.getValue().peek()));
+            }
+            long ackDeadline = Math.min(System.nanoTime() + sendTimeout.toNanos(), claimExpiry);
+
+            Iterator<Map.Entry<String, Deque<OutboxEvent>>> keys = byKey.entrySet().iterator();
+            while (keys.hasNext()) {
+                Map.Entry<String, Deque<OutboxEvent>> entry = keys.next();
+                CompletableFuture<SendResult<String, Object>> ack = round.get(entry.getKey());
+                if (ack == null) {
+                    // The deadline passed before this key's send; it and the keys after it stay unsent
+                    break;
+                }
+                Deque<OutboxEvent> events = entry.getValue();
+                OutboxEvent event = events.peek();
+                try {
+                    ack.get(Math.max(ackDeadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                    published.add(event.getId());
+                    events.poll();
+                    if (events.isEmpty()) {
+                        keys.remove();
+                    }
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("Failed to publish outbox event {} ({}), holding back {} events for key {}: {}",
+                            event.getId(), event.getEventType(), events.size(), event.getEventKey(), e.getMessage());
+                    keys.remove();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return published;
+                }
+            }
+        }
+        return published;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent event) {
+        try {
+            ProducerRecord<String, Object> record =
+                    new ProducerRecord<>(event.getTopic(), event.getEventKey(), toEvent(event));
+            record.headers().add(OUTBOX_ID_HEADER, ByteBuffer.allocate(Long.BYTES).putLong(event.getId()).array());
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private NotificationEvent toEvent(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), NotificationEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload in outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -2,7 +2,8 @@ package com.microservices.order_service.model;
 
 import jakarta.persistence.*;
         import lombok.*;
-        import org.hibernate.annotations.CreationTimestamp;
+        import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -16,7 +17,11 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_id", columnList = "user_id, order_id"),
+        @Index(name = "idx_orders_status", columnList = "status, order_id"),
+        @Index(name = "idx_orders_created_at", columnList = "created_at")
+})
 public class Orders {
 
     @Id
@@ -45,6 +50,7 @@ public class Orders {
     private boolean isPaid;
 
     @OneToMany(mappedBy = "orders", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
 
@@ -0,0 +1,15 @@
+package com.microservices.order_service.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchStockUpdateDto {
+
+    private List<OrderItemDto> items;
+}
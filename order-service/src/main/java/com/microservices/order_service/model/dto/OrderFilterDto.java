@@ -0,0 +1,26 @@
+package com.microservices.order_service.model.dto;
+
+import com.microservices.order_service.model.Status;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderFilterDto {
+
+    private Status status;
+    private String userId;
+
+    // Inclusive lower bound on createdAt
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+
+    // Exclusive upper bound on createdAt
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+}
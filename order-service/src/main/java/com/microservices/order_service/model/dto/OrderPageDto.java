@@ -0,0 +1,18 @@
+package com.microservices.order_service.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderPageDto {
+
+    private List<OrderResponseDto> orders;
+
+    // orderId to pass as afterId for the next page, null on the last page
+    private Long nextAfterId;
+}
@@ -1,9 +1,40 @@
 package com.microservices.order_service.repository;
 
 import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.model.Status;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Orders, Long> {
+
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Orders> findWithItemsByOrderId(Long orderId);
+
+    @Query("SELECT o FROM Orders o " +
+            "WHERE o.orderId > :afterId " +
+            "AND (:status IS NULL OR o.status = :status) " +
+            "AND (:userId IS NULL OR o.userId = :userId) " +
+            "AND (:createdFrom IS NULL OR o.createdAt >= :createdFrom) " +
+            "AND (:createdTo IS NULL OR o.createdAt < :createdTo) " +
+            "ORDER BY o.orderId")
+    List<Orders> findPage(@Param("afterId") Long afterId,
+                          @Param("status") Status status,
+                          @Param("userId") String userId,
+                          @Param("createdFrom") LocalDateTime createdFrom,
+                          @Param("createdTo") LocalDateTime createdTo,
+                          Limit limit);
+
+    // Initializes orderItems on orders already loaded in the persistence context
+    @Query("SELECT DISTINCT o FROM Orders o LEFT JOIN FETCH o.orderItems WHERE o.orderId IN :orderIds")
+    List<Orders> fetchOrderItems(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,5 +1,6 @@
 package com.microservices.order_service.security;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -40,13 +41,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            String email = jwtUtil.extractUsername(token);
+            // One verification yields both the principal and the authorities
+            Claims claims = jwtUtil.extractAllClaims(token);
+            String email = claims.getSubject();
 
             UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(
                             email,
                             null,
-                            jwtUtil.getAuthorities(token)
+                            jwtUtil.getAuthorities(claims)
                     );
 
             SecurityContextHolder.getContext().setAuthentication(authToken);
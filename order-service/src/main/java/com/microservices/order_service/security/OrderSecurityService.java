@@ -1,20 +1,21 @@
 package com.microservices.order_service.security;
 
-import com.microservices.order_service.exception.OrderNotFoundException;
-import com.microservices.order_service.model.dto.OrderResponseDto;
-import com.microservices.order_service.service.OrderService;
+import com.microservices.order_service.cache.OrderRequestCache;
+import com.microservices.order_service.model.Orders;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderSecurityService {
 
-    private final OrderService orderService;
+    private final OrderRequestCache orderRequestCache;
 
     public boolean isOrderOwner(Long orderId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -25,17 +26,19 @@ public class OrderSecurityService {
         String currentUserId = authentication.getName();
 
         try {
-            OrderResponseDto order = orderService.findOrderById(orderId);
+            // Loaded through the request cache so the handler reuses this entity
+            Optional<Orders> order = orderRequestCache.findWithItemsByOrderId(orderId);
+            if (order.isEmpty()) {
+                log.warn("Security Check: Order not found with ID: {}", orderId);
+                return false;
+            }
 
-            boolean isOwner = currentUserId.equals(order.getUserId());
+            boolean isOwner = currentUserId.equals(order.get().getUserId());
             if (!isOwner) {
                 log.warn("Security Check Failed: User '{}' is NOT the owner of order '{}'. Owner is '{}'.",
-                        currentUserId, orderId, order.getUserId());
+                        currentUserId, orderId, order.get().getUserId());
             }
             return isOwner;
-        } catch (OrderNotFoundException e) {
-            log.warn("Security Check: Order not found with ID: {}", orderId);
-            return false;
         } catch (Exception e) {
             log.error("Error during security check for orderId {}: {}", orderId, e.getMessage());
             return false;
@@ -1,16 +1,19 @@
 package com.microservices.order_service.service;
 
 import com.microservices.order_service.model.dto.DeliveryDto;
+import com.microservices.order_service.model.dto.OrderFilterDto;
+import com.microservices.order_service.model.dto.OrderPageDto;
 import com.microservices.order_service.model.dto.OrderRequestDto;
 import com.microservices.order_service.model.dto.OrderResponseDto;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
     OrderResponseDto createOrder(OrderRequestDto orderRequestDto);
     OrderResponseDto updateOrder(Long orderId, OrderRequestDto orderRequestDto);
     OrderResponseDto findOrderById(Long orderId);
-    List<OrderResponseDto> findAllOrders();
+    OrderPageDto findAllOrders(OrderFilterDto filter, Long afterId, int size);
+    void exportOrders(OrderFilterDto filter, Consumer<OrderResponseDto> consumer);
     DeliveryDto getDeliveryByOrderId(Long orderId);
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.microservices.order_service.service.impl;
 
+import com.microservices.order_service.cache.OrderRequestCache;
+import com.microservices.order_service.cache.ProductCache;
 import com.microservices.order_service.exception.DeliveryNotFoundException;
 import com.microservices.order_service.exception.OrderNotFoundException;
 import com.microservices.order_service.exception.ProductServiceException;
@@ -15,52 +17,76 @@ import com.microservices.order_service.model.dto.*;
 import com.microservices.order_service.repository.OrderRepository;
 import com.microservices.order_service.service.OrderService;
 import feign.FeignException;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
+    private final ProductCache productCache;
+    private final OrderRequestCache orderRequestCache;
     private final DeliveryClient deliveryClient;
     private final OrderMapper orderMapper;
     private final NotificationEventProducer  notificationEventProducer;
+    private final EntityManager entityManager;
+
+    @Value("${order.product-lookup.max-concurrency:8}")
+    private int productLookupConcurrency = 8;
 
     @Override
     @Transactional
     public OrderResponseDto createOrder(OrderRequestDto orderRequestDto) {
 
-        BigDecimal orderAmount = BigDecimal.ZERO;
-        List<OrderItemDto> successfullyProcessedItems = new java.util.ArrayList<>();
+        List<OrderItemDto> orderItems = orderRequestDto.getOrderItems();
+        boolean stockReserved = false;
 
         try {
-            for (OrderItemDto itemDto : orderRequestDto.getOrderItems()) {
-
-                ResponseEntity<ProductDto> response = productClient.reduceStock(
-                        itemDto.getProductId(),
-                        itemDto.getQuantity()
-                );
+            // Reserve every line in one all-or-nothing call so cart size does not add round-trips
+            List<ProductDto> products = productClient.reduceStockBatch(new BatchStockUpdateDto(orderItems));
+            stockReserved = true;
+
+            Map<Long, BigDecimal> prices = new HashMap<>();
+            if (products != null) {
+                for (ProductDto product : products) {
+                    prices.put(product.getProductId(), product.getProductPrice());
+                    productCache.put(product);
+                }
+            }
 
-                ProductDto product = response.getBody();
-                if (product == null) {
+            BigDecimal orderAmount = BigDecimal.ZERO;
+            for (OrderItemDto itemDto : orderItems) {
+                BigDecimal price = prices.get(itemDto.getProductId());
+                if (price == null) {
                     throw new ProductServiceException("Product not found: " + itemDto.getProductId());
                 }
-
-                successfullyProcessedItems.add(itemDto);
-
-                BigDecimal itemTotal = product.getProductPrice()
-                        .multiply(BigDecimal.valueOf(itemDto.getQuantity()));
-                orderAmount = orderAmount.add(itemTotal);
+                orderAmount = orderAmount.add(price.multiply(BigDecimal.valueOf(itemDto.getQuantity())));
             }
 
             Orders order = Orders.builder()
@@ -71,7 +97,7 @@ public class OrderServiceImpl implements OrderService {
                     .status(Status.PENDING)
                     .build();
 
-            for (OrderItemDto itemDto : orderRequestDto.getOrderItems()) {
+            for (OrderItemDto itemDto : orderItems) {
                 OrderItem orderItem = orderMapper.toOrderItem(itemDto, order);
                 order.addOrderItem(orderItem);
             }
@@ -92,14 +118,16 @@ public class OrderServiceImpl implements OrderService {
             return orderMapper.toResponseDto(savedOrder);
 
         } catch (Exception e) {
-            log.error("Order failed. Initiating stock rollback for {} items...", successfullyProcessedItems.size());
-
-            for (OrderItemDto processedItem : successfullyProcessedItems) {
-                try {
-                    productClient.increaseStock(processedItem.getProductId(), processedItem.getQuantity());
-                    log.info("Rolled back stock for Product ID: {}", processedItem.getProductId());
-                } catch (Exception rollbackEx) {
-                    log.error("CRITICAL: Failed to rollback stock for Product {}. Manual fix required.", processedItem.getProductId());
+            if (stockReserved) {
+                log.error("Order failed. Initiating stock rollback for {} items...", orderItems.size());
+
+                for (OrderItemDto processedItem : orderItems) {
+                    try {
+                        productClient.increaseStock(processedItem.getProductId(), processedItem.getQuantity());
+                        log.info("Rolled back stock for Product ID: {}", processedItem.getProductId());
+                    } catch (Exception rollbackEx) {
+                        log.error("CRITICAL: Failed to rollback stock for Product {}. Manual fix required.", processedItem.getProductId());
+                    }
                 }
             }
             throw new ProductServiceException("Order failed: " + e.getMessage());
@@ -111,7 +139,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponseDto updateOrder(Long orderId, OrderRequestDto orderRequestDto) {
         log.info("Updating order with ID: {}", orderId);
 
-        Orders existingOrder = orderRepository.findById(orderId)
+        Orders existingOrder = orderRequestCache.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         BigDecimal newOrderAmount = calculateOrderAmount(orderRequestDto.getOrderItems());
@@ -147,7 +175,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderResponseDto findOrderById(Long orderId) {
         log.info("Fetching order with ID: {}", orderId);
 
-        Orders order = orderRepository.findById(orderId)
+        Orders order = orderRequestCache.findWithItemsByOrderId(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
 
         return orderMapper.toResponseDto(order);
@@ -155,13 +183,58 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<OrderResponseDto> findAllOrders() {
-        log.info("Fetching all orders");
+    public OrderPageDto findAllOrders(OrderFilterDto filter, Long afterId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.info("Fetching orders after ID {} (page size {})", afterId, size);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Orders> orders = findPageWithItems(filter, afterId == null ? 0L : afterId, size + 1);
+
+        boolean hasNext = orders.size() > size;
+        List<Orders> page = hasNext ? orders.subList(0, size) : orders;
+        log.info("Found {} orders", page.size());
+
+        return OrderPageDto.builder()
+                .orders(orderMapper.toResponseDtoList(page))
+                .nextAfterId(hasNext ? page.getLast().getOrderId() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderFilterDto filter, Consumer<OrderResponseDto> consumer) {
+        log.info("Exporting orders");
+
+        long afterId = 0L;
+        long exported = 0;
+        List<Orders> chunk;
+        do {
+            chunk = findPageWithItems(filter, afterId, EXPORT_CHUNK_SIZE);
+            chunk.forEach(order -> consumer.accept(orderMapper.toResponseDto(order)));
+
+            if (!chunk.isEmpty()) {
+                afterId = chunk.getLast().getOrderId();
+                exported += chunk.size();
+            }
+            // Keep the persistence context from growing with the export
+            entityManager.clear();
+        } while (chunk.size() == EXPORT_CHUNK_SIZE);
 
-        List<Orders> orders = orderRepository.findAll();
-        log.info("Found {} orders", orders.size());
+        log.info("Exported {} orders", exported);
+    }
+
+    // One query for the page of orders, one for all of their items
+    private List<Orders> findPageWithItems(OrderFilterDto filter, long afterId, int limit) {
+        OrderFilterDto criteria = filter == null ? new OrderFilterDto() : filter;
 
-        return orderMapper.toResponseDtoList(orders);
+        List<Orders> orders = orderRepository.findPage(afterId, criteria.getStatus(), criteria.getUserId(),
+                criteria.getCreatedFrom(), criteria.getCreatedTo(), Limit.of(limit));
+        if (!orders.isEmpty()) {
+            orderRepository.fetchOrderItems(orders.stream().map(Orders::getOrderId).toList());
+        }
+        return orders;
     }
 
     @Override
@@ -169,6 +242,7 @@ public class OrderServiceImpl implements OrderService {
     public DeliveryDto getDeliveryByOrderId(Long orderId) {
         log.info("Fetching delivery for order ID: {}", orderId);
 
+        // Only deliveryId is needed, so orderItems stay unloaded
         Orders order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         Long deliveryId = order.getDeliveryId();
@@ -179,25 +253,77 @@ public class OrderServiceImpl implements OrderService {
     }
 
     private BigDecimal calculateOrderAmount(List<OrderItemDto> orderItems) {
-        BigDecimal totalAmount = BigDecimal.ZERO;
+        Map<Long, BigDecimal> prices = fetchProductPrices(orderItems.stream()
+                .map(OrderItemDto::getProductId)
+                .distinct()
+                .toList());
 
+        BigDecimal totalAmount = BigDecimal.ZERO;
         for (OrderItemDto itemDto : orderItems) {
-            try {
-                ProductDto product = productClient.getProductById(itemDto.getProductId());
-                BigDecimal itemTotal = product.getProductPrice()
-                        .multiply(BigDecimal.valueOf(itemDto.getQuantity()));
-                totalAmount = totalAmount.add(itemTotal);
-
-                log.debug("Product ID: {}, Price: {}, Quantity: {}, Item Total: {}",
-                        itemDto.getProductId(), product.getProductPrice(),
-                        itemDto.getQuantity(), itemTotal);
-            } catch (FeignException e) {
-                log.error("Failed to fetch product {}: ", itemDto.getProductId(), e);
+            BigDecimal price = prices.get(itemDto.getProductId());
+            if (price == null) {
                 throw new ProductServiceException("Failed to fetch product details for product ID: " + itemDto.getProductId());
             }
+            BigDecimal itemTotal = price.multiply(BigDecimal.valueOf(itemDto.getQuantity()));
+            totalAmount = totalAmount.add(itemTotal);
+
+            log.debug("Product ID: {}, Price: {}, Quantity: {}, Item Total: {}",
+                    itemDto.getProductId(), price, itemDto.getQuantity(), itemTotal);
         }
 
         log.info("Calculated order amount: {}", totalAmount);
         return totalAmount;
     }
-}
\ No newline at end of file
+
+    private Map<Long, BigDecimal> fetchProductPrices(List<Long> productIds) {
+        try {
+            List<ProductDto> products = productCache.getProductsByIds(productIds);
+            Map<Long, BigDecimal> prices = new HashMap<>();
+            if (products != null) {
+                for (ProductDto product : products) {
+                    prices.put(product.getProductId(), product.getProductPrice());
+                }
+            }
+            return prices;
+        } catch (FeignException | ProductServiceException e) {
+            log.warn("Bulk product lookup failed, falling back to parallel lookups: {}", e.getMessage());
+            return fetchProductPricesInParallel(productIds);
+        }
+    }
+
+    private Map<Long, BigDecimal> fetchProductPricesInParallel(List<Long> productIds) {
+        // Feign forwards the caller's token from the request context, so hand it to every worker
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Semaphore permits = new Semaphore(productLookupConcurrency);
+        Map<Long, Future<ProductDto>> futures = new LinkedHashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long productId : productIds) {
+                futures.put(productId, executor.submit(() -> {
+                    permits.acquire();
+                    RequestContextHolder.setRequestAttributes(requestAttributes);
+                    try {
+                        return productCache.getProductById(productId);
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                        permits.release();
+                    }
+                }));
+            }
+
+            Map<Long, BigDecimal> prices = new HashMap<>();
+            for (Map.Entry<Long, Future<ProductDto>> entry : futures.entrySet()) {
+                try {
+                    prices.put(entry.getKey(), entry.getValue().get().getProductPrice());
+                } catch (ExecutionException e) {
+                    log.error("Failed to fetch product {}: ", entry.getKey(), e.getCause());
+                    throw new ProductServiceException("Failed to fetch product details for product ID: " + entry.getKey());
+                }
+            }
+            return prices;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductServiceException("Interrupted while fetching product details");
+        }
+    }
+}
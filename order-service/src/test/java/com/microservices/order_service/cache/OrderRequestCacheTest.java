@@ -0,0 +1,89 @@
+package com.microservices.order_service.cache;
+
+import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRequestCacheTest {
+
+    @Mock private OrderRepository orderRepository;
+    @Mock private EntityManager entityManager;
+
+    private OrderRequestCache orderRequestCache;
+    private Orders order;
+
+    @BeforeEach
+    void setUp() {
+        orderRequestCache = new OrderRequestCache(orderRepository, entityManager);
+        order = Orders.builder().orderId(1L).userId("user123").build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findWithItemsByOrderId_ShouldQueryOncePerRequest() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(orderRepository.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+        when(entityManager.contains(order)).thenReturn(true);
+
+        orderRequestCache.findWithItemsByOrderId(1L);
+        Optional<Orders> result = orderRequestCache.findWithItemsByOrderId(1L);
+
+        assertThat(result).containsSame(order);
+        verify(orderRepository, times(1)).findWithItemsByOrderId(1L);
+    }
+
+    @Test
+    void findWithItemsByOrderId_ShouldReload_WhenCachedEntityIsDetached() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(orderRepository.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+        when(entityManager.contains(order)).thenReturn(false);
+
+        orderRequestCache.findWithItemsByOrderId(1L);
+        orderRequestCache.findWithItemsByOrderId(1L);
+
+        verify(orderRepository, times(2)).findWithItemsByOrderId(1L);
+    }
+
+    @Test
+    void findWithItemsByOrderId_ShouldNotShareOrdersAcrossRequests() {
+        when(orderRepository.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        orderRequestCache.findWithItemsByOrderId(1L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        orderRequestCache.findWithItemsByOrderId(1L);
+
+        verify(orderRepository, times(2)).findWithItemsByOrderId(1L);
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void findWithItemsByOrderId_ShouldDelegate_WhenNoRequestIsBound() {
+        when(orderRepository.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+
+        orderRequestCache.findWithItemsByOrderId(1L);
+        orderRequestCache.findWithItemsByOrderId(1L);
+
+        verify(orderRepository, times(2)).findWithItemsByOrderId(1L);
+        verifyNoInteractions(entityManager);
+    }
+}
@@ -0,0 +1,74 @@
+package com.microservices.order_service.cache;
+
+import com.microservices.order_service.feign.ProductClient;
+import com.microservices.order_service.model.dto.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCacheTest {
+
+    @Mock private ProductClient productClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProductCache productCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        productCache = new ProductCache(productClient, new ConcurrentMapCacheManager(ProductCache.CACHE_NAME), meterRegistry);
+    }
+
+    @Test
+    void getProductById_ShouldCallProductServiceOnlyOnMiss() {
+        when(productClient.getProductById(1L)).thenReturn(product(1L));
+
+        productCache.getProductById(1L);
+        ProductDto result = productCache.getProductById(1L);
+
+        assertThat(result.getProductPrice()).isEqualByComparingTo("10.00");
+        verify(productClient, times(1)).getProductById(1L);
+    }
+
+    @Test
+    void getProductsByIds_ShouldBulkFetchOnlyMisses() {
+        productCache.put(product(1L));
+        when(productClient.getProductsByIds(List.of(2L, 3L))).thenReturn(List.of(product(2L), product(3L)));
+
+        List<ProductDto> result = productCache.getProductsByIds(List.of(1L, 2L, 3L));
+
+        assertThat(result).extracting(ProductDto::getProductId).containsExactlyInAnyOrder(1L, 2L, 3L);
+        verify(productClient).getProductsByIds(List.of(2L, 3L));
+        verifyNoMoreInteractions(productClient);
+    }
+
+    @Test
+    void evict_ShouldForceReloadAndCountInvalidation() {
+        when(productClient.getProductById(1L)).thenReturn(product(1L));
+        productCache.getProductById(1L);
+
+        productCache.evict(1L);
+        productCache.getProductById(1L);
+
+        verify(productClient, times(2)).getProductById(1L);
+        assertThat(meterRegistry.get("product.cache.invalidations").counter().count()).isEqualTo(1.0);
+    }
+
+    private ProductDto product(Long productId) {
+        return ProductDto.builder()
+                .productId(productId)
+                .productPrice(new BigDecimal("10.00"))
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.order_service.exception.OrderNotFoundException;
 import com.microservices.order_service.model.dto.DeliveryDto;
 import com.microservices.order_service.model.dto.OrderItemDto;
+import com.microservices.order_service.model.dto.OrderPageDto;
 import com.microservices.order_service.model.dto.OrderRequestDto;
 import com.microservices.order_service.model.dto.OrderResponseDto;
 import com.microservices.order_service.service.OrderService;
@@ -23,11 +24,14 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -183,7 +187,7 @@ class OrderControllerIntegrationTest {
     @DisplayName("GET /orders - Success as SUPER_ADMIN")
     @WithMockUser(roles = "SUPER_ADMIN")
     void findAllOrders_asSuperAdmin_returnsOk() throws Exception {
-        when(orderService.findAllOrders()).thenReturn(orderList);
+        when(orderService.findAllOrders(any(), isNull(), anyInt())).thenReturn(new OrderPageDto(orderList, null));
 
         mockMvc.perform(get("/api/v1/orders"))
                 .andExpect(status().isOk())
@@ -195,13 +199,56 @@ class OrderControllerIntegrationTest {
     @DisplayName("GET /orders - Success as ORDER_ADMIN")
     @WithMockUser(roles = "ORDER_ADMIN")
     void findAllOrders_asOrderAdmin_returnsOk() throws Exception {
-        when(orderService.findAllOrders()).thenReturn(orderList);
+        when(orderService.findAllOrders(any(), isNull(), anyInt())).thenReturn(new OrderPageDto(orderList, null));
 
         mockMvc.perform(get("/api/v1/orders"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    @DisplayName("GET /orders - Filters bind from query parameters")
+    @WithMockUser(roles = "ORDER_ADMIN")
+    void findAllOrders_withFilters_bindsFilterAndCursor() throws Exception {
+        when(orderService.findAllOrders(any(), eq(10L), eq(1))).thenReturn(new OrderPageDto(List.of(orderResponseDto), 11L));
+
+        mockMvc.perform(get("/api/v1/orders")
+                        .param("status", "PENDING")
+                        .param("userId", "user123")
+                        .param("createdFrom", "2025-01-01T00:00:00")
+                        .param("afterId", "10")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After-Id", "11"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(orderService).findAllOrders(argThat(filter -> filter.getStatus() == Status.PENDING
+                && "user123".equals(filter.getUserId())
+                && LocalDateTime.of(2025, 1, 1, 0, 0).equals(filter.getCreatedFrom())), eq(10L), eq(1));
+    }
+
+    @Test
+    @DisplayName("GET /orders - Streams NDJSON export as ORDER_ADMIN")
+    @WithMockUser(roles = "ORDER_ADMIN")
+    void exportOrders_asOrderAdmin_streamsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<OrderResponseDto> consumer = invocation.getArgument(1);
+            orderList.forEach(consumer);
+            return null;
+        }).when(orderService).exportOrders(any(), any());
+
+        var asyncResult = mockMvc.perform(get("/api/v1/orders").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(orderResponseDto) + "\n"
+                                + objectMapper.writeValueAsString(orderResponseDto2) + "\n"));
+    }
+
     @Test
     @DisplayName("GET /orders - Forbidden as USER")
     @WithMockUser(roles = "USER")
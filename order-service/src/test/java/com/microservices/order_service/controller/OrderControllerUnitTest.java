@@ -1,7 +1,10 @@
 package com.microservices.order_service.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microservices.order_service.model.Status;
 import com.microservices.order_service.model.dto.DeliveryDto;
+import com.microservices.order_service.model.dto.OrderFilterDto;
+import com.microservices.order_service.model.dto.OrderPageDto;
 import com.microservices.order_service.model.dto.OrderRequestDto;
 import com.microservices.order_service.model.dto.OrderResponseDto;
 import com.microservices.order_service.service.OrderService;
@@ -9,12 +12,19 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class OrderControllerUnitTest {
@@ -22,6 +32,9 @@ class OrderControllerUnitTest {
     @Mock
     private OrderService orderService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
     @InjectMocks
     private OrderController orderController;
 
@@ -67,15 +80,37 @@ class OrderControllerUnitTest {
     }
 
     @Test
-    void findAllOrders_ShouldReturnOkWithList() {
-        when(orderService.findAllOrders()).thenReturn(List.of(orderResponseDto));
+    void findAllOrders_ShouldReturnOkWithPageAndCursor() {
+        OrderFilterDto filter = OrderFilterDto.builder().status(Status.PENDING).build();
+        when(orderService.findAllOrders(filter, null, 50)).thenReturn(new OrderPageDto(List.of(orderResponseDto), 1L));
 
-        ResponseEntity<List<OrderResponseDto>> response = orderController.findAllOrders();
+        ResponseEntity<List<OrderResponseDto>> response = orderController.findAllOrders(filter, null, 50);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).hasSize(1);
         assertThat(response.getBody().getFirst()).isEqualTo(orderResponseDto);
-        verify(orderService).findAllOrders();
+        assertThat(response.getHeaders().getFirst("X-Next-After-Id")).isEqualTo("1");
+        verify(orderService).findAllOrders(filter, null, 50);
+    }
+
+    @Test
+    void exportOrders_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        OrderFilterDto filter = new OrderFilterDto();
+        doAnswer(invocation -> {
+            Consumer<OrderResponseDto> consumer = invocation.getArgument(1);
+            consumer.accept(orderResponseDto);
+            consumer.accept(orderResponseDto);
+            return null;
+        }).when(orderService).exportOrders(eq(filter), any());
+
+        ResponseEntity<StreamingResponseBody> response = orderController.exportOrders(filter);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], OrderResponseDto.class).getOrderId()).isEqualTo(1L);
     }
 
     @Test
@@ -0,0 +1,166 @@
+package com.microservices.order_service.kafka.consumer;
+
+import com.microservices.order_service.kafka.event.DeliveryCreatedEvent;
+import com.microservices.order_service.kafka.event.DeliveryStatusChangedEvent;
+import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.model.PaymentMode;
+import com.microservices.order_service.model.Status;
+import com.microservices.order_service.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Counts the SQL statements a poll of delivery events costs with per-event transactions and
+ * with the bulk write path, and checks that a missing order still fails only its own record.
+ */
+@Slf4j
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=100",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DeliveryEventConsumerBatchWriteTest {
+
+    private static final int ORDERS = 20;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<Long> orderIds;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+
+        List<Orders> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(Orders.builder()
+                    .userId("user" + i)
+                    .orderAmount(new BigDecimal("100.00"))
+                    .status(Status.SHIPPED)
+                    .paymentMode(PaymentMode.UPI)
+                    .build());
+        }
+        orderIds = orderRepository.saveAll(orders).stream().map(Orders::getOrderId).toList();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("A poll of delivery created events costs one lookup and one batched update")
+    void deliveryCreated_bulkWritesIssueTwoStatements() {
+        consumer(false).consumeDeliveryCreatedEvents(deliveriesCreated(1_000L));
+        long perEvent = statistics.getPrepareStatementCount();
+
+        // New delivery ids, so every order is dirty again
+        statistics.clear();
+        consumer(true).consumeDeliveryCreatedEvents(deliveriesCreated(2_000L));
+        long bulk = statistics.getPrepareStatementCount();
+
+        log.info("{} delivery created events: {} statements per event, {} in bulk", ORDERS, perEvent, bulk);
+        assertThat(perEvent).isEqualTo(2L * ORDERS);
+        assertThat(bulk).isEqualTo(2);
+        assertThat(orderRepository.findAllById(orderIds))
+                .allSatisfy(order -> assertThat(order.getDeliveryId()).isGreaterThanOrEqualTo(2_000L));
+    }
+
+    @Test
+    @DisplayName("Status changes are applied in bulk and only DELIVERED touches the order")
+    void deliveryStatusChanged_bulkAppliesDeliveredOnly() {
+        List<ConsumerRecord<String, DeliveryStatusChangedEvent>> poll = List.of(
+                record("delivery-status-changed", 0, statusChanged(orderIds.get(0), "DELIVERED")),
+                record("delivery-status-changed", 1, statusChanged(orderIds.get(1), "CANCELLED")),
+                record("delivery-status-changed", 2, statusChanged(orderIds.get(2), "DELIVERED")));
+
+        consumer(true).consumeDeliveryStatusChangedEvents(poll);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(orderRepository.findById(orderIds.get(0)).orElseThrow().getStatus()).isEqualTo(Status.DELIVERED);
+        assertThat(orderRepository.findById(orderIds.get(1)).orElseThrow().getStatus()).isEqualTo(Status.SHIPPED);
+        assertThat(orderRepository.findById(orderIds.get(2)).orElseThrow().getStatus()).isEqualTo(Status.DELIVERED);
+    }
+
+    @Test
+    @DisplayName("A missing order falls back to per-event writes and reports only its record")
+    void missingOrder_fallsBackAndReportsFailedRecord() {
+        List<ConsumerRecord<String, DeliveryStatusChangedEvent>> poll = List.of(
+                record("delivery-status-changed", 0, statusChanged(orderIds.get(0), "DELIVERED")),
+                record("delivery-status-changed", 1, statusChanged(-1L, "DELIVERED")),
+                record("delivery-status-changed", 2, statusChanged(orderIds.get(2), "DELIVERED")));
+
+        assertThatThrownBy(() -> consumer(true).consumeDeliveryStatusChangedEvents(poll))
+                .isInstanceOf(BatchListenerFailedException.class)
+                .satisfies(e -> assertThat(((BatchListenerFailedException) e).getIndex()).isEqualTo(1));
+
+        assertThat(orderRepository.findById(orderIds.get(0)).orElseThrow().getStatus()).isEqualTo(Status.DELIVERED);
+        assertThat(orderRepository.findById(orderIds.get(2)).orElseThrow().getStatus()).isEqualTo(Status.DELIVERED);
+    }
+
+    private DeliveryEventConsumer consumer(boolean bulkWrites) {
+        return new DeliveryEventConsumer(orderRepository, transactionManager, 4, bulkWrites);
+    }
+
+    private List<ConsumerRecord<String, DeliveryCreatedEvent>> deliveriesCreated(long firstDeliveryId) {
+        return IntStream.range(0, ORDERS)
+                .mapToObj(i -> record("delivery-created", i, DeliveryCreatedEvent.builder()
+                        .orderId(orderIds.get(i))
+                        .deliveryId(firstDeliveryId + i)
+                        .status("PENDING")
+                        .build()))
+                .toList();
+    }
+
+    private static <E> ConsumerRecord<String, E> record(String topic, long offset, E event) {
+        return new ConsumerRecord<>(topic, 0, offset, null, event);
+    }
+
+    private static DeliveryStatusChangedEvent statusChanged(Long orderId, String newStatus) {
+        return DeliveryStatusChangedEvent.builder()
+                .deliveryId(orderId)
+                .orderId(orderId)
+                .oldStatus("SHIPPED")
+                .newStatus(newStatus)
+                .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.microservices.order_service.kafka.consumer;
+
+import com.microservices.order_service.config.KafkaConsumerConfig;
+import com.microservices.order_service.kafka.event.DeliveryStatusChangedEvent;
+import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drains the same backlog of delivery status changes from an embedded broker with one consumer
+ * thread and one lane (the previous behaviour), then with one consumer per partition and a
+ * growing number of key-ordered lanes up to the core count. Every order lookup costs a
+ * simulated database round-trip, and the rates are logged per setup.
+ *
+ * <p>Not part of the test suite, since the rates depend on the machine; run {@link #main} with
+ * the test classpath. Ordering and failure handling of the lanes are covered by
+ * {@link KeyOrderedProcessorTest}.
+ */
+@Slf4j
+public class DeliveryEventConsumerScalingRunner {
+
+    private static final String TOPIC = "delivery-status-changed";
+    private static final int PARTITIONS = 2;
+    private static final int ORDERS = 500;
+    private static final int EVENTS = 2_000;
+    private static final long ROUND_TRIP_MILLIS = 2;
+
+    public static void main(String[] args) throws Exception {
+        EmbeddedKafkaBroker broker = new EmbeddedKafkaKraftBroker(1, PARTITIONS, TOPIC);
+        broker.afterPropertiesSet();
+        try {
+            produceBacklog(broker);
+
+            int cores = Runtime.getRuntime().availableProcessors();
+            Map<String, Double> rates = new LinkedHashMap<>();
+            rates.put("1 consumer x 1 lane", drain(broker, 1, 1));
+            for (int lanes = 1; lanes <= cores; lanes *= 2) {
+                rates.put(PARTITIONS + " consumers x " + lanes + " lanes", drain(broker, PARTITIONS, lanes));
+            }
+            rates.forEach((setup, rate) -> log.info("{}: {} events/s", setup, Math.round(rate)));
+        } finally {
+            broker.destroy();
+        }
+    }
+
+    private static void produceBacklog(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(props);
+        try {
+            KafkaTemplate<String, Object> template = new KafkaTemplate<>(producerFactory);
+            for (int i = 0; i < EVENTS; i++) {
+                long orderId = i % ORDERS;
+                template.send(TOPIC, String.valueOf(orderId), DeliveryStatusChangedEvent.builder()
+                        .deliveryId(orderId)
+                        .orderId(orderId)
+                        .oldStatus("SHIPPED")
+                        .newStatus("DELIVERED")
+                        .changedAt(LocalDateTime.now())
+                        .build());
+            }
+            template.flush();
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private static double drain(EmbeddedKafkaBroker broker, int concurrency, int lanes) throws Exception {
+        CountDownLatch remaining = new CountDownLatch(EVENTS);
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(ROUND_TRIP_MILLIS);
+            return Optional.of(Orders.builder().orderId(invocation.getArgument(0)).build());
+        });
+        when(orderRepository.save(any(Orders.class))).thenAnswer(invocation -> {
+            remaining.countDown();
+            return invocation.getArgument(0);
+        });
+        // Per-event transactions: this measures the lanes, not the bulk write path
+        DeliveryEventConsumer consumer =
+                new DeliveryEventConsumer(orderRepository, mock(PlatformTransactionManager.class), lanes, false);
+
+        KafkaConsumerConfig config = new KafkaConsumerConfig();
+        config.setBootstrapServers(broker.getBrokersAsString());
+        config.setGroupId("scaling-" + concurrency + "x" + lanes);
+        config.setDeliveryEventsConcurrency(concurrency);
+        ConcurrentMessageListenerContainer<String, DeliveryStatusChangedEvent> container =
+                config.deliveryStatusKafkaListenerContainerFactory().createContainer(TOPIC);
+        container.setupMessageListener(
+                (BatchMessageListener<String, DeliveryStatusChangedEvent>) consumer::consumeDeliveryStatusChangedEvents);
+
+        long start = System.nanoTime();
+        container.start();
+        try {
+            if (!remaining.await(120, TimeUnit.SECONDS)) {
+                throw new IllegalStateException(remaining.getCount() + " events not applied within 120s");
+            }
+            return EVENTS / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            container.stop();
+        }
+    }
+}
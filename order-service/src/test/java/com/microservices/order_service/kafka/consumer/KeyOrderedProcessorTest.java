@@ -0,0 +1,55 @@
+package com.microservices.order_service.kafka.consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyOrderedProcessorTest {
+
+    private record Item(long key, int sequence) {
+    }
+
+    @Test
+    void process_ShouldKeepBatchOrderPerKeyAcrossLanes() {
+        List<Item> items = IntStream.range(0, 1_000).mapToObj(i -> new Item(i % 37, i)).toList();
+        Map<Long, List<Integer>> applied = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        new KeyOrderedProcessor(8).process(items, Item::key, item -> {
+            threads.add(Thread.currentThread().toString());
+            applied.computeIfAbsent(item.key(), k -> Collections.synchronizedList(new ArrayList<>())).add(item.sequence());
+        });
+
+        assertThat(applied).hasSize(37);
+        applied.values().forEach(sequences -> assertThat(sequences).isSorted());
+        assertThat(threads).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void process_ShouldSkipLaterItemsOfFailedKeyAndReportEarliestFailure() {
+        List<Item> items = List.of(new Item(1, 0), new Item(2, 1), new Item(1, 2), new Item(2, 3), new Item(3, 4));
+        List<Integer> applied = Collections.synchronizedList(new ArrayList<>());
+
+        assertThatThrownBy(() -> new KeyOrderedProcessor(4).process(items, Item::key, item -> {
+            if (item.sequence() == 1 || item.sequence() == 4) {
+                throw new IllegalStateException("failed " + item.sequence());
+            }
+            applied.add(item.sequence());
+        }))
+                .isInstanceOf(BatchListenerFailedException.class)
+                .satisfies(e -> assertThat(((BatchListenerFailedException) e).getIndex()).isEqualTo(1));
+
+        // Key 2 stops at its failure; keys 1 and 3 are unaffected by it
+        assertThat(applied).containsExactlyInAnyOrder(0, 2);
+    }
+}
@@ -0,0 +1,60 @@
+package com.microservices.order_service.kafka.consumer;
+
+import com.microservices.order_service.cache.ProductCache;
+import com.microservices.order_service.feign.ProductClient;
+import com.microservices.order_service.kafka.event.ProductChangedEvent;
+import com.microservices.order_service.model.dto.ProductDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangedEventConsumerTest {
+
+    @Mock private ProductClient productClient;
+
+    private ProductCache productCache;
+    private ProductChangedEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        productCache = new ProductCache(productClient, new ConcurrentMapCacheManager(ProductCache.CACHE_NAME),
+                new SimpleMeterRegistry());
+        consumer = new ProductChangedEventConsumer(productCache);
+        productCache.put(ProductDto.builder().productId(1L).productPrice(new BigDecimal("10.00")).build());
+    }
+
+    @Test
+    void stockChanged_ShouldKeepCachedProduct() {
+        consumer.consumeProductChangedEvent(event("STOCK_CHANGED"));
+
+        productCache.getProductById(1L);
+
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void updated_ShouldEvictCachedProduct() {
+        when(productClient.getProductById(1L)).thenReturn(ProductDto.builder().productId(1L).build());
+
+        consumer.consumeProductChangedEvent(event("UPDATED"));
+        productCache.getProductById(1L);
+
+        verify(productClient).getProductById(1L);
+    }
+
+    private static ProductChangedEvent event(String changeType) {
+        return ProductChangedEvent.builder()
+                .productId(1L)
+                .changeType(changeType)
+                .build();
+    }
+}
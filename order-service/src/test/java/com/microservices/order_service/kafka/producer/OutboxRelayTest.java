@@ -0,0 +1,198 @@
+package com.microservices.order_service.kafka.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservices.order_service.kafka.event.NotificationEvent;
+import com.microservices.order_service.model.OutboxEvent;
+import com.microservices.order_service.repository.OutboxEventRepository;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock private OutboxEventRepository outboxEventRepository;
+    @Mock private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionManager,
+                3, Duration.ofSeconds(1), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void sendNotification_ShouldQueueEventInsteadOfPublishing() {
+        NotificationEventProducer producer = new NotificationEventProducer(outboxEventRepository, objectMapper);
+
+        producer.sendNotification(event("1"));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(saved.capture());
+        assertThat(saved.getValue().getTopic()).isEqualTo("order-events");
+        assertThat(saved.getValue().getEventKey()).isEqualTo("1");
+        assertThat(saved.getValue().getEventType()).isEqualTo("ORDER_CREATED");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void publishBatch_ShouldClaimSendInOrderAndDeleteAcknowledgedEvents() throws Exception {
+        when(outboxEventRepository.findNextBatch(Limit.of(3))).thenReturn(List.of(outbox(1L, "10"), outbox(2L, "11")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(acked(), acked());
+
+        int published = outboxRelay.publishBatch();
+
+        assertThat(published).isEqualTo(2);
+        verify(outboxEventRepository).claim(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        ArgumentCaptor<ProducerRecord<String, Object>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertThat(records.getAllValues()).extracting(ProducerRecord::topic).containsOnly("order-events");
+        assertThat(records.getAllValues()).extracting(ProducerRecord::key).containsExactly("10", "11");
+        assertThat(records.getAllValues()).extracting(OutboxRelayTest::outboxId).containsExactly(1L, 2L);
+        assertThat(records.getAllValues()).allSatisfy(r -> assertThat(r.value()).isInstanceOf(NotificationEvent.class));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository, never()).release(anyCollection());
+    }
+
+    @Test
+    void publishBatch_ShouldSendNextEventForKeyOnlyAfterEarlierOneIsAcked() throws Exception {
+        CompletableFuture<SendResult<String, Object>> firstAck = new CompletableFuture<>();
+        List<Boolean> earlierAckedAtSend = new ArrayList<>();
+        when(outboxEventRepository.findNextBatch(Limit.of(3))).thenReturn(List.of(outbox(1L, "10"), outbox(2L, "10")));
+        when(kafkaTemplate.send(forKey("10"))).thenAnswer(invocation -> {
+            if (earlierAckedAtSend.isEmpty()) {
+                earlierAckedAtSend.add(true);
+                CompletableFuture.delayedExecutor(50, TimeUnit.MILLISECONDS).execute(() -> firstAck.complete(null));
+                return firstAck;
+            }
+            earlierAckedAtSend.add(firstAck.isDone());
+            return acked();
+        });
+
+        int published = outboxRelay.publishBatch();
+
+        assertThat(published).isEqualTo(2);
+        assertThat(earlierAckedAtSend).containsExactly(true, true);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+    }
+
+    @Test
+    void publishBatch_ShouldNotSendEventsBehindAFailedSendForTheSameKey() throws Exception {
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "10"), outbox(2L, "11"), outbox(3L, "10")));
+        when(kafkaTemplate.send(forKey("10")))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(kafkaTemplate.send(forKey("11"))).thenReturn(acked());
+
+        int published = outboxRelay.publishBatch();
+
+        assertThat(published).isEqualTo(1);
+        verify(kafkaTemplate, times(1)).send(forKey("10"));
+        InOrder inOrder = inOrder(outboxEventRepository);
+        inOrder.verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L));
+        inOrder.verify(outboxEventRepository).release(List.of(1L, 3L));
+    }
+
+    @Test
+    void publishBatch_ShouldNotStartSendsThatCouldOutlastTheClaim() throws Exception {
+        // Sends may only start in the first 500ms; each one blocks for 300ms, as on a metadata wait
+        outboxRelay = new OutboxRelay(outboxEventRepository, kafkaTemplate, objectMapper, transactionManager,
+                3, Duration.ofSeconds(1), Duration.ofMillis(1500));
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "10"), outbox(2L, "11"), outbox(3L, "12")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return acked();
+        });
+
+        int published = outboxRelay.publishBatch();
+
+        assertThat(published).isEqualTo(2);
+        verify(kafkaTemplate, never()).send(forKey("12"));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository).release(List.of(3L));
+    }
+
+    @Test
+    void publishBatch_ShouldLeaveBatchClaimedByAnotherRelayAlone() throws Exception {
+        OutboxEvent claimed = outbox(1L, "10");
+        claimed.setClaimedUntil(LocalDateTime.now().plusSeconds(30));
+        when(outboxEventRepository.findNextBatch(Limit.of(3))).thenReturn(List.of(claimed, outbox(2L, "11")));
+
+        int published = outboxRelay.publishBatch();
+
+        assertThat(published).isZero();
+        verify(outboxEventRepository, never()).claim(anyCollection(), any());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void relay_ShouldDrainFullBatchesBackToBack() throws Exception {
+        when(outboxEventRepository.findNextBatch(Limit.of(3)))
+                .thenReturn(List.of(outbox(1L, "10"), outbox(2L, "11"), outbox(3L, "12")))
+                .thenReturn(List.of(outbox(4L, "13")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> acked());
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).findNextBatch(Limit.of(3));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L));
+    }
+
+    private OutboxEvent outbox(Long id, String orderId) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("order-events")
+                .eventKey(orderId)
+                .eventType("ORDER_CREATED")
+                .payload(objectMapper.writeValueAsString(event(orderId)))
+                .build();
+    }
+
+    private static NotificationEvent event(String orderId) {
+        return NotificationEvent.builder()
+                .eventType("ORDER_CREATED")
+                .orderId(orderId)
+                .userId("user-1")
+                .status("PENDING")
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static ProducerRecord<String, Object> forKey(String key) {
+        return argThat(record -> record != null && key.equals(record.key()));
+    }
+
+    private static long outboxId(ProducerRecord<String, Object> record) {
+        return ByteBuffer.wrap(record.headers().lastHeader(OutboxRelay.OUTBOX_ID_HEADER).value()).getLong();
+    }
+
+    private static CompletableFuture<SendResult<String, Object>> acked() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
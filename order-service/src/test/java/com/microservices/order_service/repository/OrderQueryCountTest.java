@@ -0,0 +1,186 @@
+package com.microservices.order_service.repository;
+
+import com.microservices.order_service.cache.OrderRequestCache;
+import com.microservices.order_service.cache.ProductCache;
+import com.microservices.order_service.feign.DeliveryClient;
+import com.microservices.order_service.feign.ProductClient;
+import com.microservices.order_service.kafka.producer.NotificationEventProducer;
+import com.microservices.order_service.mapper.OrderMapper;
+import com.microservices.order_service.model.OrderItem;
+import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.model.PaymentMode;
+import com.microservices.order_service.model.Status;
+import com.microservices.order_service.model.dto.DeliveryDto;
+import com.microservices.order_service.model.dto.OrderFilterDto;
+import com.microservices.order_service.model.dto.OrderPageDto;
+import com.microservices.order_service.model.dto.OrderResponseDto;
+import com.microservices.order_service.security.OrderSecurityService;
+import com.microservices.order_service.service.OrderService;
+import com.microservices.order_service.service.impl.OrderServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Asserts the exact number of SQL statements each order read path issues, so a lazy
+ * orderItems access sneaking back into a read path fails the build.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrderServiceImpl.class, OrderMapper.class, OrderRequestCache.class, OrderSecurityService.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderQueryCountTest {
+
+    private static final int ORDERS = 5;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderSecurityService orderSecurityService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean private ProductClient productClient;
+    @MockitoBean private ProductCache productCache;
+    @MockitoBean private DeliveryClient deliveryClient;
+    @MockitoBean private NotificationEventProducer notificationEventProducer;
+
+    private Statistics statistics;
+    private Long firstOrderId;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+
+        List<Orders> orders = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            Orders order = Orders.builder()
+                    .userId("user" + i)
+                    .orderAmount(new BigDecimal("100.00"))
+                    .status(Status.PENDING)
+                    .paymentMode(PaymentMode.UPI)
+                    .deliveryId(10L + i)
+                    .build();
+            for (long productId = 1; productId <= ITEMS_PER_ORDER; productId++) {
+                order.addOrderItem(OrderItem.builder().productId(productId).quantity(1).build());
+            }
+            orders.add(order);
+        }
+        firstOrderId = orderRepository.saveAll(orders).getFirst().getOrderId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("findOrderById loads the order and its items in one statement")
+    void findOrderById_issuesOneStatement() {
+        OrderResponseDto order = orderService.findOrderById(firstOrderId);
+
+        assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findAllOrders loads a page and all of its items in two statements")
+    void findAllOrders_issuesTwoStatements() {
+        OrderPageDto page = orderService.findAllOrders(new OrderFilterDto(), null, ORDERS);
+
+        assertThat(page.getOrders()).hasSize(ORDERS)
+                .allSatisfy(order -> assertThat(order.getOrderItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("exportOrders loads each chunk and its items in two statements")
+    void exportOrders_issuesTwoStatementsPerChunk() {
+        List<OrderResponseDto> exported = new ArrayList<>();
+
+        orderService.exportOrders(new OrderFilterDto(), exported::add);
+
+        assertThat(exported).hasSize(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Owner GET checks ownership and serves the order from one statement")
+    void ownerFindOrderById_issuesOneStatement() {
+        inOwnerRequest("user0", () -> {
+            assertThat(orderSecurityService.isOrderOwner(firstOrderId)).isTrue();
+            assertThat(orderService.findOrderById(firstOrderId).getOrderItems()).hasSize(ITEMS_PER_ORDER);
+        });
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getDeliveryByOrderId never touches orderItems")
+    void getDeliveryByOrderId_issuesOneStatement() {
+        when(deliveryClient.getDeliveryById(10L)).thenReturn(new DeliveryDto());
+
+        orderService.getDeliveryByOrderId(firstOrderId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // Mirrors a web request: request attributes, an authenticated user and open-in-view's
+    // request-bound EntityManager
+    private void inOwnerRequest(String userId, Runnable request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(userId, null, "ROLE_USER"));
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            request.run();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+            SecurityContextHolder.clearContext();
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.microservices.order_service.security;
+
+import com.microservices.order_service.model.Role;
+import com.microservices.order_service.model.UserPrincipal;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * GatewayAuthenticationFilter in isolation: the previous per-request split/valueOf/HashSet
+ * decoding against the shared decoded roles.
+ *
+ * <p>Not part of the test suite; run {@link #main} from the IDE or with the test classpath.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GatewayAuthenticationFilterBenchmark {
+
+    private final FilterChain chain = (request, response) -> { };
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private OncePerRequestFilter perRequestDecoding;
+    private OncePerRequestFilter sharedDecoding;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/api/v1/orders/1");
+        request.addHeader("X-User-Id", "user-1");
+        request.addHeader("X-User-Email", "john@test.com");
+        request.addHeader("X-User-Roles", "ROLE_USER,ROLE_ORDER_ADMIN");
+        response = new MockHttpServletResponse();
+        perRequestDecoding = new PerRequestDecodingFilter();
+        sharedDecoding = new GatewayAuthenticationFilter();
+    }
+
+    @Benchmark
+    public void perRequestDecoding() throws Exception {
+        perRequestDecoding.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public void sharedDecoding() throws Exception {
+        sharedDecoding.doFilter(request, response, chain);
+        SecurityContextHolder.clearContext();
+    }
+
+    // The decoding GatewayAuthenticationFilter used before roles were shared
+    static class PerRequestDecodingFilter extends OncePerRequestFilter {
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws java.io.IOException, jakarta.servlet.ServletException {
+            Set<Role> roles = Arrays.stream(request.getHeader("X-User-Roles").split(","))
+                    .map(roleName -> roleName.startsWith("ROLE_") ? roleName.substring(5) : roleName)
+                    .map(Role::valueOf)
+                    .collect(Collectors.toSet());
+
+            UserPrincipal userPrincipal = UserPrincipal.builder()
+                    .userId(request.getHeader("X-User-Id"))
+                    .email(request.getHeader("X-User-Email"))
+                    .roles(roles)
+                    .build();
+
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(userPrincipal, null, userPrincipal.getAuthorities()));
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GatewayAuthenticationFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,66 @@
+package com.microservices.order_service.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "my-secret-key-for-jwt-is-1234567!@#";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        jwtUtil.setSecret(SECRET);
+    }
+
+    @Test
+    void extractAllClaims_ShouldExposePrincipalAndAuthoritiesFromOneParse() {
+        Claims claims = jwtUtil.extractAllClaims(token(SECRET, 60_000));
+
+        assertThat(claims.getSubject()).isEqualTo("john@test.com");
+        assertThat(claims.get("userId", String.class)).isEqualTo("user-1");
+        assertThat(jwtUtil.getAuthorities(claims)).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER", "ROLE_ORDER_ADMIN");
+    }
+
+    @Test
+    void extractAllClaims_ShouldRejectTokenSignedWithAnotherKey() {
+        String token = token("another-secret-key-for-jwt-signing-0987654321", 60_000);
+
+        assertThatThrownBy(() -> jwtUtil.extractAllClaims(token)).isInstanceOf(JwtException.class);
+        assertThat(jwtUtil.getAuthorities(token)).isEmpty();
+    }
+
+    @Test
+    void extractAllClaims_ShouldRejectExpiredToken() {
+        String token = token(SECRET, -1_000);
+
+        assertThatThrownBy(() -> jwtUtil.extractAllClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    private static String token(String secret, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .subject("john@test.com")
+                .claim("userId", "user-1")
+                .claim("roles", List.of("ROLE_USER", "ROLE_ORDER_ADMIN"))
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+    }
+}
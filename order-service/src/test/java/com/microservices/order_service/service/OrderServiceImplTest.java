@@ -1,5 +1,7 @@
 package com.microservices.order_service.service;
 
+import com.microservices.order_service.cache.OrderRequestCache;
+import com.microservices.order_service.cache.ProductCache;
 import com.microservices.order_service.exception.*;
 import com.microservices.order_service.feign.DeliveryClient;
 import com.microservices.order_service.feign.ProductClient;
@@ -10,15 +12,18 @@ import com.microservices.order_service.model.*;
 import com.microservices.order_service.model.dto.*;
 import com.microservices.order_service.repository.OrderRepository;
 import com.microservices.order_service.service.impl.OrderServiceImpl;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,9 +33,12 @@ class OrderServiceImplTest {
 
     @Mock private OrderRepository orderRepository;
     @Mock private ProductClient productClient;
+    @Mock private ProductCache productCache;
+    @Mock private OrderRequestCache orderRequestCache;
     @Mock private DeliveryClient deliveryClient;
     @Mock private OrderMapper orderMapper;
     @Mock private NotificationEventProducer notificationEventProducer;
+    @Mock private EntityManager entityManager;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -70,8 +78,8 @@ class OrderServiceImplTest {
     }
 
     @Test
-    void createOrder_ShouldCalculateAmount_SaveOrder_AndSendNotification() {
-        when(productClient.getProductById(1L)).thenReturn(productDto);
+    void createOrder_ShouldReserveStockInOneCall_SaveOrder_AndSendNotification() {
+        when(productClient.reduceStockBatch(any(BatchStockUpdateDto.class))).thenReturn(List.of(productDto));
         when(orderMapper.toOrderItem(any(), any())).thenReturn(new OrderItem());
         when(orderRepository.save(any(Orders.class))).thenReturn(order);
         when(orderMapper.toResponseDto(order)).thenReturn(responseDto);
@@ -79,23 +87,41 @@ class OrderServiceImplTest {
         OrderResponseDto result = orderService.createOrder(orderRequest);
 
         assertThat(result).isEqualTo(responseDto);
-        verify(orderRepository).save(any(Orders.class));
+        ArgumentCaptor<Orders> saved = ArgumentCaptor.forClass(Orders.class);
+        verify(orderRepository).save(saved.capture());
+        assertThat(saved.getValue().getOrderAmount()).isEqualByComparingTo("200.00");
+        verify(productClient, times(1)).reduceStockBatch(any(BatchStockUpdateDto.class));
+        verify(productClient, never()).reduceStock(anyLong(), anyInt());
+        verify(productCache).put(productDto);
         verify(notificationEventProducer).sendNotification(any(NotificationEvent.class));
     }
 
     @Test
-    void createOrder_ShouldThrow_WhenProductFetchFails() {
-        when(productClient.getProductById(1L)).thenThrow(new ProductServiceException("fail"));
+    void createOrder_ShouldThrow_WhenStockReservationFails() {
+        when(productClient.reduceStockBatch(any(BatchStockUpdateDto.class)))
+                .thenThrow(new ProductServiceException("fail"));
 
         assertThatThrownBy(() -> orderService.createOrder(orderRequest))
                 .isInstanceOf(ProductServiceException.class);
         verify(orderRepository, never()).save(any());
+        verify(productClient, never()).increaseStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void createOrder_ShouldRollbackReservedStock_WhenSaveFails() {
+        when(productClient.reduceStockBatch(any(BatchStockUpdateDto.class))).thenReturn(List.of(productDto));
+        when(orderMapper.toOrderItem(any(), any())).thenReturn(new OrderItem());
+        when(orderRepository.save(any(Orders.class))).thenThrow(new RuntimeException("db down"));
+
+        assertThatThrownBy(() -> orderService.createOrder(orderRequest))
+                .isInstanceOf(ProductServiceException.class);
+        verify(productClient).increaseStock(1L, 2);
     }
 
     @Test
     void updateOrder_ShouldUpdateExistingOrderAndSendNotification() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
-        when(productClient.getProductById(1L)).thenReturn(productDto);
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+        when(productCache.getProductsByIds(List.of(1L))).thenReturn(List.of(productDto));
         when(orderMapper.toOrderItem(any(), any())).thenReturn(new OrderItem());
         when(orderRepository.save(any())).thenReturn(order);
         when(orderMapper.toResponseDto(order)).thenReturn(responseDto);
@@ -107,41 +133,140 @@ class OrderServiceImplTest {
         verify(notificationEventProducer).sendNotification(any(NotificationEvent.class));
     }
 
+    @Test
+    void updateOrder_ShouldPriceAllItemsWithOneBulkLookup() {
+        List<OrderItemDto> items = LongStream.rangeClosed(1, 100).mapToObj(id -> new OrderItemDto(id, 1)).toList();
+        orderRequest.setOrderItems(items);
+
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+        when(productCache.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> ProductDto.builder().productId(id).productPrice(BigDecimal.ONE).build()).toList();
+        });
+        when(orderMapper.toOrderItem(any(), any())).thenReturn(new OrderItem());
+        when(orderRepository.save(any())).thenReturn(order);
+        when(orderMapper.toResponseDto(order)).thenReturn(responseDto);
+
+        orderService.updateOrder(1L, orderRequest);
+
+        assertThat(order.getOrderAmount()).isEqualByComparingTo("100");
+        verify(productCache, times(1)).getProductsByIds(anyList());
+        verify(productCache, never()).getProductById(anyLong());
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void updateOrder_ShouldFallBackToParallelLookups_WhenBulkLookupFails() {
+        OrderItemDto secondItem = new OrderItemDto(2L, 1);
+        ProductDto secondProduct = new ProductDto();
+        secondProduct.setProductId(2L);
+        secondProduct.setProductPrice(new BigDecimal("50.00"));
+        orderRequest.setOrderItems(List.of(itemDto, secondItem));
+
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+        when(productCache.getProductsByIds(List.of(1L, 2L))).thenThrow(new ProductServiceException("bulk unavailable"));
+        when(productCache.getProductById(1L)).thenReturn(productDto);
+        when(productCache.getProductById(2L)).thenReturn(secondProduct);
+        when(orderMapper.toOrderItem(any(), any())).thenReturn(new OrderItem());
+        when(orderRepository.save(any())).thenReturn(order);
+        when(orderMapper.toResponseDto(order)).thenReturn(responseDto);
+
+        orderService.updateOrder(1L, orderRequest);
+
+        assertThat(order.getOrderAmount()).isEqualByComparingTo("250.00");
+        verify(productCache).getProductById(1L);
+        verify(productCache).getProductById(2L);
+    }
+
+    @Test
+    void updateOrder_ShouldThrow_WhenProductMissingFromBulkLookup() {
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
+        when(productCache.getProductsByIds(List.of(1L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> orderService.updateOrder(1L, orderRequest))
+                .isInstanceOf(ProductServiceException.class);
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     void updateOrder_ShouldThrow_WhenOrderNotFound() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> orderService.updateOrder(1L, orderRequest))
                 .isInstanceOf(OrderNotFoundException.class);
     }
 
     @Test
     void findOrderById_ShouldReturnResponseDto() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.of(order));
         when(orderMapper.toResponseDto(order)).thenReturn(responseDto);
 
         OrderResponseDto result = orderService.findOrderById(1L);
 
         assertThat(result).isEqualTo(responseDto);
-        verify(orderRepository).findById(1L);
+        verify(orderRequestCache).findWithItemsByOrderId(1L);
     }
 
     @Test
     void findOrderById_ShouldThrow_WhenNotFound() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRequestCache.findWithItemsByOrderId(1L)).thenReturn(Optional.empty());
         assertThatThrownBy(() -> orderService.findOrderById(1L))
                 .isInstanceOf(OrderNotFoundException.class);
     }
 
     @Test
-    void findAllOrders_ShouldReturnMappedList() {
-        when(orderRepository.findAll()).thenReturn(List.of(order));
-        when(orderMapper.toResponseDtoList(List.of(order))).thenReturn(List.of(responseDto));
+    void findAllOrders_ShouldFetchPageAndItemsInTwoQueries() {
+        Orders second = Orders.builder().orderId(2L).build();
+        Orders third = Orders.builder().orderId(3L).build();
+        OrderFilterDto filter = OrderFilterDto.builder().status(Status.PENDING).userId("user123").build();
+
+        when(orderRepository.findPage(0L, Status.PENDING, "user123", null, null, Limit.of(3)))
+                .thenReturn(List.of(order, second, third));
+        when(orderMapper.toResponseDtoList(List.of(order, second))).thenReturn(List.of(responseDto, new OrderResponseDto()));
 
-        List<OrderResponseDto> result = orderService.findAllOrders();
+        OrderPageDto result = orderService.findAllOrders(filter, null, 2);
 
-        assertThat(result).hasSize(1);
-        assertThat(result.getFirst()).isEqualTo(responseDto);
-        verify(orderRepository).findAll();
+        assertThat(result.getOrders()).hasSize(2);
+        assertThat(result.getNextAfterId()).isEqualTo(2L);
+        verify(orderRepository).fetchOrderItems(List.of(1L, 2L, 3L));
+        verify(orderRepository, never()).findAll();
+    }
+
+    @Test
+    void findAllOrders_ShouldReturnLastPageWithoutCursor() {
+        when(orderRepository.findPage(1L, null, null, null, null, Limit.of(51))).thenReturn(List.of());
+        when(orderMapper.toResponseDtoList(List.of())).thenReturn(List.of());
+
+        OrderPageDto result = orderService.findAllOrders(null, 1L, 50);
+
+        assertThat(result.getOrders()).isEmpty();
+        assertThat(result.getNextAfterId()).isNull();
+        verify(orderRepository, never()).fetchOrderItems(any());
+    }
+
+    @Test
+    void findAllOrders_ShouldRejectInvalidPageSize() {
+        assertThatThrownBy(() -> orderService.findAllOrders(null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> orderService.findAllOrders(null, null, 501))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void exportOrders_ShouldWalkAllChunksAndClearPersistenceContext() {
+        List<Orders> fullChunk = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> Orders.builder().orderId(id).build())
+                .toList();
+        when(orderRepository.findPage(0L, null, null, null, null, Limit.of(500))).thenReturn(fullChunk);
+        when(orderRepository.findPage(500L, null, null, null, null, Limit.of(500))).thenReturn(List.of(order));
+        when(orderMapper.toResponseDto(any(Orders.class))).thenReturn(responseDto);
+        List<OrderResponseDto> exported = new ArrayList<>();
+
+        orderService.exportOrders(new OrderFilterDto(), exported::add);
+
+        assertThat(exported).hasSize(501);
+        verify(orderRepository, times(2)).fetchOrderItems(any());
+        verify(entityManager, times(2)).clear();
     }
 
     @Test
@@ -0,0 +1,138 @@
+package com.microservices.order_service.service;
+
+import com.microservices.order_service.cache.OrderRequestCache;
+import com.microservices.order_service.cache.ProductCache;
+import com.microservices.order_service.exception.ProductServiceException;
+import com.microservices.order_service.feign.DeliveryClient;
+import com.microservices.order_service.feign.ProductClient;
+import com.microservices.order_service.kafka.producer.NotificationEventProducer;
+import com.microservices.order_service.mapper.OrderMapper;
+import com.microservices.order_service.model.Orders;
+import com.microservices.order_service.model.PaymentMode;
+import com.microservices.order_service.model.Status;
+import com.microservices.order_service.model.dto.OrderItemDto;
+import com.microservices.order_service.model.dto.OrderRequestDto;
+import com.microservices.order_service.model.dto.ProductDto;
+import com.microservices.order_service.repository.OrderRepository;
+import com.microservices.order_service.service.impl.OrderServiceImpl;
+import jakarta.persistence.EntityManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.NoOpCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares updateOrder latency for 1, 10 and 100 item orders between the old serial per-item
+ * lookup, the bulk lookup and the bounded-parallel fallback, with every product-service call
+ * costing a simulated network round-trip.
+ *
+ * <p>Not part of the test suite, since the timings depend on the machine; run {@link #main}
+ * with the test classpath. That updateOrder makes one bulk call instead of one per item is
+ * checked by {@code OrderServiceImplTest}.
+ */
+@Slf4j
+public class OrderUpdateLatencyRunner {
+
+    private static final long ROUND_TRIP_MILLIS = 5;
+    private static final int ITERATIONS = 3;
+
+    private ProductClient productClient;
+    private OrderRepository orderRepository;
+    private OrderServiceImpl orderService;
+
+    public static void main(String[] args) {
+        for (int itemCount : new int[] {1, 10, 100}) {
+            OrderUpdateLatencyRunner runner = new OrderUpdateLatencyRunner();
+            runner.setUp();
+            runner.updateOrderLatency(itemCount);
+        }
+    }
+
+    private void setUp() {
+        productClient = mock(ProductClient.class);
+        orderRepository = mock(OrderRepository.class);
+        // No-op cache so every run measures the product-service lookups themselves
+        ProductCache productCache = new ProductCache(productClient, new NoOpCacheManager(), new SimpleMeterRegistry());
+        EntityManager entityManager = mock(EntityManager.class);
+        orderService = new OrderServiceImpl(orderRepository, productClient, productCache,
+                new OrderRequestCache(orderRepository, entityManager), mock(DeliveryClient.class),
+                new OrderMapper(), mock(NotificationEventProducer.class), entityManager);
+
+        when(orderRepository.findWithItemsByOrderId(anyLong())).thenAnswer(invocation -> Optional.of(Orders.builder()
+                .orderId(invocation.getArgument(0))
+                .userId("user123")
+                .orderAmount(BigDecimal.ZERO)
+                .status(Status.PENDING)
+                .paymentMode(PaymentMode.UPI)
+                .build()));
+        when(orderRepository.save(any(Orders.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(productClient.getProductById(anyLong())).thenAnswer(invocation -> {
+            simulateRoundTrip();
+            return product(invocation.getArgument(0));
+        });
+    }
+
+    private void updateOrderLatency(int itemCount) {
+        OrderRequestDto request = request(itemCount);
+
+        when(productClient.getProductsByIds(anyList())).thenAnswer(invocation -> {
+            simulateRoundTrip();
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(this::product).toList();
+        });
+        long serial = measure(() -> serialLookup(request.getOrderItems()));
+        long bulk = measure(() -> orderService.updateOrder(1L, request));
+
+        when(productClient.getProductsByIds(anyList())).thenThrow(new ProductServiceException("bulk unavailable"));
+        long parallel = measure(() -> orderService.updateOrder(1L, request));
+
+        log.info("updateOrder with {} items: serial {} ms, bulk {} ms, parallel fallback {} ms",
+                itemCount, serial, bulk, parallel);
+    }
+
+    // The per-item loop calculateOrderAmount used before the bulk endpoint existed
+    private BigDecimal serialLookup(List<OrderItemDto> items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItemDto item : items) {
+            ProductDto product = productClient.getProductById(item.getProductId());
+            total = total.add(product.getProductPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return total;
+    }
+
+    private long measure(Runnable action) {
+        action.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            action.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000 / ITERATIONS;
+    }
+
+    private OrderRequestDto request(int itemCount) {
+        List<OrderItemDto> items = LongStream.rangeClosed(1, itemCount)
+                .mapToObj(id -> new OrderItemDto(id, 1))
+                .toList();
+        return new OrderRequestDto("user123", items, PaymentMode.UPI);
+    }
+
+    private ProductDto product(Long productId) {
+        return ProductDto.builder()
+                .productId(productId)
+                .productPrice(new BigDecimal("10.00"))
+                .build();
+    }
+
+    private static void simulateRoundTrip() throws InterruptedException {
+        Thread.sleep(ROUND_TRIP_MILLIS);
+    }
+}
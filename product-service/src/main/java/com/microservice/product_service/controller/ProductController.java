@@ -1,7 +1,11 @@
 package com.microservice.product_service.controller;
 
+import com.microservice.product_service.model.dto.BatchStockUpdateDTO;
 import com.microservice.product_service.model.dto.ProductDTO;
+import com.microservice.product_service.model.dto.ProductPageDTO;
 import com.microservice.product_service.service.ProductService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,11 +16,16 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -26,7 +35,13 @@ import java.util.List;
 @SecurityRequirement(name = "bearerAuth")
 public class ProductController {
 
+    private static final String NEXT_AFTER_ID_HEADER = "X-Next-After-Id";
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${product.lookup.max-ids:500}")
+    private int maxLookupIds = 500;
 
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'PRODUCT_ADMIN')")
     @PostMapping("/add")
@@ -88,6 +103,27 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
     @PreAuthorize("hasAnyRole('SUPER_ADMIN','PRODUCT_ADMIN','USER')")
+    @PatchMapping("/reduce-stock/batch")
+    @Operation(summary = "Reserve Stock for multiple Products",description = "Reduces stock of all items in one transaction, all or nothing")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Stock Reserved",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400",description = "Bad Request",content = @Content),
+            @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
+            @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content),
+            @ApiResponse(responseCode = "404",description = "Not Found",content = @Content),
+            @ApiResponse(responseCode = "409",description = "Insufficient Stock",content = @Content)
+    })
+    public ResponseEntity<List<ProductDTO>> reduceStockBatch(@Valid @RequestBody BatchStockUpdateDTO batchStockUpdateDTO){
+        List<ProductDTO> updatedProducts = productService.reduceStockBatch(batchStockUpdateDTO.getItems());
+        return ResponseEntity.ok(updatedProducts);
+    }
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN','PRODUCT_ADMIN','USER')")
     @PatchMapping("/increase-stock/{productId}")
     @Operation(summary = "Update Stock",description = "Only SUPER_ADMIN or PRODUCT_ADMIN has permission")
     @ApiResponses(value = {
@@ -106,9 +142,11 @@ public class ProductController {
         ProductDTO updatedProduct = productService.increaseStock(productId,quantity);
         return ResponseEntity.ok(updatedProduct);
     }
+    // Without afterId or size the whole catalog is returned as before paging was added, streamed
+    // from the database cursor rather than loaded into memory
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'PRODUCT_ADMIN', 'USER','ORDER_ADMIN')")
-    @GetMapping
-    @Operation(summary = "Get all Products",description = "Only SUPER_ADMIN,PRODUCT_ADMIN and ORDER_ADMIN has permission")
+    @GetMapping(params = {"!afterId", "!size", "!ids"}, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Get all Products",description = "Returns the whole catalog in productId order; pass size, and afterId, to page through it instead")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200",
                     description = "All Products Found",
@@ -120,8 +158,109 @@ public class ProductController {
             @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
             @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content)
     })
-    public ResponseEntity<List<ProductDTO>> getAllProducts() {
-        List<ProductDTO> products = productService.getAllProducts();
+    public ResponseEntity<StreamingResponseBody> getAllProducts() {
+        StreamingResponseBody body = outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.writeStartArray();
+            try {
+                productService.streamAllProducts(product -> {
+                    try {
+                        objectMapper.writeValue(generator, product);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            generator.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'PRODUCT_ADMIN', 'USER','ORDER_ADMIN')")
+    @GetMapping
+    @Operation(summary = "Get a page of Products",description = "Keyset paginated by productId; pass the X-Next-After-Id response header as afterId to fetch the next page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Products Found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
+            @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content)
+    })
+    public ResponseEntity<List<ProductDTO>> getProductPage(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "50") int size) {
+        ProductPageDTO page = productService.getProductPage(afterId, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextAfterId() != null) {
+            response.header(NEXT_AFTER_ID_HEADER, page.getNextAfterId().toString());
+        }
+        return response.body(page.getProducts());
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'PRODUCT_ADMIN', 'USER','ORDER_ADMIN')")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all Products",description = "Streams the whole catalog as newline-delimited JSON in productId order")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "All Products Streamed",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ProductDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
+            @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> streamAllProducts() {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                productService.streamAllProducts(product -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(product));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'PRODUCT_ADMIN', 'USER','ORDER_ADMIN')")
+    @GetMapping(params = "ids")
+    @Operation(summary = "Get Products by productIds",description = "Returns the products found for the given ids, at most product.lookup.max-ids per request; unknown ids are omitted")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200",
+                    description = "Products Found",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = ProductDTO.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "400",description = "Too many ids",content = @Content),
+            @ApiResponse(responseCode = "401",description = "Unauthorized",content = @Content),
+            @ApiResponse(responseCode = "403",description = "Forbidden",content = @Content)
+    })
+    public ResponseEntity<List<ProductDTO>> getProductsByIds(@RequestParam("ids") List<Long> productIds) {
+        if (productIds.size() > maxLookupIds) {
+            throw new IllegalArgumentException("At most " + maxLookupIds + " ids can be looked up per request, got " + productIds.size());
+        }
+        List<ProductDTO> products = productService.getProductsByIds(productIds);
         return ResponseEntity.ok(products);
     }
 
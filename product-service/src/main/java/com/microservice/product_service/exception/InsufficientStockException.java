@@ -0,0 +1,12 @@
+package com.microservice.product_service.exception;
+
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+
+    public InsufficientStockException(Long productId) {
+        super("Insufficient stock for product: " + productId);
+    }
+}
@@ -0,0 +1,59 @@
+package com.microservice.product_service.kafka.producer;
+
+import com.microservice.product_service.kafka.event.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class ProductEventProducer {
+
+    private static final String PRODUCT_CHANGED_TOPIC = "product-changed";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * Publishes once the surrounding transaction commits, so consumers that evict and re-fetch
+     * never read the pre-change row.
+     */
+    public void sendProductChangedEvent(ProductChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    private void publish(ProductChangedEvent event) {
+        log.info("Publishing product changed event: {}", event);
+
+        try {
+            CompletableFuture<SendResult<String, Object>> future =
+                    kafkaTemplate.send(PRODUCT_CHANGED_TOPIC, event.getProductId().toString(), event);
+
+            future.whenComplete((result, ex) -> {
+                if (ex == null) {
+                    log.info("Event published successfully to topic '{}': productId={}, changeType={}",
+                            PRODUCT_CHANGED_TOPIC, event.getProductId(), event.getChangeType());
+                } else {
+                    log.error("Failed to publish event to topic '{}': {}", PRODUCT_CHANGED_TOPIC, ex.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            log.error("Error publishing product changed event: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.microservice.product_service.model.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchStockUpdateDTO {
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid
+    private List<StockUpdateDTO> items;
+}
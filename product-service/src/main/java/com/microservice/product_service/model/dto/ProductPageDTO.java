@@ -0,0 +1,18 @@
+package com.microservice.product_service.model.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductPageDTO {
+
+    private List<ProductDTO> products;
+
+    // productId to pass as afterId for the next page, null on the last page
+    private Long nextAfterId;
+}
@@ -1,9 +1,55 @@
 package com.microservice.product_service.repository;
 
 import com.microservice.product_service.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Decrements stock in a single conditional UPDATE so concurrent orders can never oversell.
+     *
+     * @return number of rows updated, 0 when the product is missing or has insufficient stock
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.productId = :productId AND p.stock >= :quantity")
+    int reduceStockIfAvailable(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    /**
+     * Increments stock in a single UPDATE without reading the row first.
+     *
+     * @return number of rows updated, 0 when the product is missing
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.productId = :productId")
+    int increaseStockBy(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    /**
+     * Keyset page: products with an id greater than {@code productId}, in id order.
+     */
+    List<Product> findByProductIdGreaterThanOrderByProductIdAsc(Long productId, Limit limit);
+
+    /**
+     * Streams the whole catalog in id order. A fetch size of Integer.MIN_VALUE makes MySQL
+     * Connector/J stream rows instead of buffering the result set; must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.productId")
+    Stream<Product> streamAllByOrderByProductId();
 }
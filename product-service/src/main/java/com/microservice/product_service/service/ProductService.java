@@ -1,15 +1,21 @@
 package com.microservice.product_service.service;
 
 import com.microservice.product_service.model.dto.ProductDTO;
+import com.microservice.product_service.model.dto.ProductPageDTO;
+import com.microservice.product_service.model.dto.StockUpdateDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
     ProductDTO createProduct(ProductDTO productDTO);
     ProductDTO updateProduct(Long productId, ProductDTO productDTO);
     ProductDTO getProductById(Long productId);
-    List<ProductDTO> getAllProducts();
+    ProductPageDTO getProductPage(Long afterId, int size);
+    void streamAllProducts(Consumer<ProductDTO> consumer);
+    List<ProductDTO> getProductsByIds(List<Long> productIds);
     void deleteProductById(Long productId);
     ProductDTO reduceStock(Long productId, Integer quantity);
     ProductDTO increaseStock(Long productId, Integer quantity);
+    List<ProductDTO> reduceStockBatch(List<StockUpdateDTO> items);
 }
@@ -1,25 +1,43 @@
 package com.microservice.product_service.service.impl;
 
+import com.microservice.product_service.kafka.event.ProductChangedEvent;
+import com.microservice.product_service.kafka.producer.ProductEventProducer;
 import com.microservice.product_service.model.dto.ProductDTO;
+import com.microservice.product_service.model.dto.ProductPageDTO;
+import com.microservice.product_service.model.dto.StockUpdateDTO;
+import com.microservice.product_service.exception.InsufficientStockException;
 import com.microservice.product_service.exception.ProductNotFoundException;
 import com.microservice.product_service.mapper.ProductMapper;
 import com.microservice.product_service.model.Product;
 import com.microservice.product_service.repository.ProductRepository;
 import com.microservice.product_service.service.ProductService;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String STOCK_CHANGED = "STOCK_CHANGED";
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
+    private final ProductEventProducer productEventProducer;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
@@ -28,6 +46,9 @@ public class ProductServiceImpl implements ProductService {
         Product product = productMapper.toEntity(productDTO);
         Product savedProduct = productRepository.save(product);
 
+        // A new product changes every catalog list page
+        publishProductChanged(savedProduct.getProductId(), "CREATED", savedProduct.getProductPrice());
+
         return productMapper.toDTO(savedProduct);
     }
 
@@ -40,6 +61,8 @@ public class ProductServiceImpl implements ProductService {
         productMapper.updateEntityFromDTO(productDTO, existingProduct);
         Product updatedProduct = productRepository.save(existingProduct);
 
+        publishProductChanged(productId, "UPDATED", updatedProduct.getProductPrice());
+
         return productMapper.toDTO(updatedProduct);
     }
 
@@ -54,9 +77,42 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductDTO> getAllProducts() {
+    public ProductPageDTO getProductPage(Long afterId, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Product> products = productRepository.findByProductIdGreaterThanOrderByProductIdAsc(
+                afterId == null ? 0L : afterId, Limit.of(size + 1));
+
+        boolean hasNext = products.size() > size;
+        List<Product> page = hasNext ? products.subList(0, size) : products;
 
-        List<Product> products = productRepository.findAll();
+        return ProductPageDTO.builder()
+                .products(productMapper.toDTOList(page))
+                .nextAfterId(hasNext ? page.getLast().getProductId() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<ProductDTO> consumer) {
+
+        try (Stream<Product> products = productRepository.streamAllByOrderByProductId()) {
+            products.forEach(product -> {
+                consumer.accept(productMapper.toDTO(product));
+                // Keep the persistence context from growing with the catalog
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDTO> getProductsByIds(List<Long> productIds) {
+
+        List<Product> products = productRepository.findAllById(productIds);
         return productMapper.toDTOList(products);
     }
 
@@ -68,34 +124,77 @@ public class ProductServiceImpl implements ProductService {
             throw new ProductNotFoundException(productId);
         }
         productRepository.deleteById(productId);
+
+        publishProductChanged(productId, "DELETED", null);
     }
 
     @Override
     @Transactional
     public ProductDTO reduceStock(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
+        validateQuantity(quantity);
 
-        ProductDTO productDTO = productMapper.toDTO(product);
-
-        if(productDTO.getStock() < quantity) {
-            throw new RuntimeException("Insufficient stock for product:"+ productId);
+        if (productRepository.reduceStockIfAvailable(productId, quantity) == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ProductNotFoundException(productId);
+            }
+            throw new InsufficientStockException(productId);
         }
-        productDTO.setStock(productDTO.getStock() - quantity);
-
-        productMapper.updateEntityFromDTO(productDTO, product);
-        Product updatedProduct = productRepository.save(product);
-        return productMapper.toDTO(updatedProduct);
+        ProductDTO product = getProductById(productId);
+        publishProductChanged(productId, STOCK_CHANGED, product.getProductPrice());
+        return product;
     }
 
     @Override
+    @Transactional
     public ProductDTO increaseStock(Long productId, Integer quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
-        ProductDTO productDTO = productMapper.toDTO(product);
-        productDTO.setStock(productDTO.getStock() + quantity);
-        productMapper.updateEntityFromDTO(productDTO, product);
-        Product updatedProduct = productRepository.save(product);
-        return productMapper.toDTO(updatedProduct);
+        validateQuantity(quantity);
+
+        if (productRepository.increaseStockBy(productId, quantity) == 0) {
+            throw new ProductNotFoundException(productId);
+        }
+        ProductDTO product = getProductById(productId);
+        publishProductChanged(productId, STOCK_CHANGED, product.getProductPrice());
+        return product;
+    }
+
+    @Override
+    @Transactional
+    public List<ProductDTO> reduceStockBatch(List<StockUpdateDTO> items) {
+        // Merge duplicate lines and lock rows in id order so concurrent batches cannot deadlock
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockUpdateDTO item : items) {
+            validateQuantity(item.getQuantity());
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+
+        quantities.forEach((productId, quantity) -> {
+            if (productRepository.reduceStockIfAvailable(productId, quantity) == 0) {
+                if (!productRepository.existsById(productId)) {
+                    throw new ProductNotFoundException(productId);
+                }
+                throw new InsufficientStockException(productId);
+            }
+        });
+
+        List<Product> products = productRepository.findAllById(quantities.keySet());
+        products.forEach(product ->
+                publishProductChanged(product.getProductId(), STOCK_CHANGED, product.getProductPrice()));
+        return productMapper.toDTOList(products);
+    }
+
+    // Cached catalog responses carry stock, so stock changes must evict them like any other edit
+    private void publishProductChanged(Long productId, String changeType, BigDecimal productPrice) {
+        productEventProducer.sendProductChangedEvent(ProductChangedEvent.builder()
+                .productId(productId)
+                .changeType(changeType)
+                .productPrice(productPrice)
+                .changedAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void validateQuantity(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than 0");
+        }
     }
-}
\ No newline at end of file
+}
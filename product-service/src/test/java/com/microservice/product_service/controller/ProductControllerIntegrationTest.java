@@ -1,8 +1,12 @@
 package com.microservice.product_service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.product_service.exception.InsufficientStockException;
 import com.microservice.product_service.exception.ProductNotFoundException;
+import com.microservice.product_service.model.dto.BatchStockUpdateDTO;
 import com.microservice.product_service.model.dto.ProductDTO;
+import com.microservice.product_service.model.dto.ProductPageDTO;
+import com.microservice.product_service.model.dto.StockUpdateDTO;
 import com.microservice.product_service.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -17,11 +21,15 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -164,29 +172,118 @@ public class ProductControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
-    // ==================== GET /products ====================
+    // ==================== PATCH /products/reduce-stock/batch ====================
 
     @Test
-    @DisplayName("GET /api/v1/products - Success as USER")
+    @DisplayName("PATCH /api/v1/products/reduce-stock/batch - Success as USER")
     @WithMockUser(roles = "USER")
-    void getAllProducts_asUser_returnsOk() throws Exception {
-        when(productService.getAllProducts()).thenReturn(productList);
+    void reduceStockBatch_asUser_returnsOk() throws Exception {
+        when(productService.reduceStockBatch(any())).thenReturn(productList);
 
-        mockMvc.perform(get("/api/v1/products"))
+        BatchStockUpdateDTO request = new BatchStockUpdateDTO(
+                List.of(new StockUpdateDTO(1L, 1), new StockUpdateDTO(2L, 3)));
+
+        mockMvc.perform(patch("/api/v1/products/reduce-stock/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("PATCH /api/v1/products/reduce-stock/batch - Conflict on insufficient stock")
+    @WithMockUser(roles = "USER")
+    void reduceStockBatch_insufficientStock_returnsConflict() throws Exception {
+        when(productService.reduceStockBatch(any())).thenThrow(new InsufficientStockException(2L));
+
+        BatchStockUpdateDTO request = new BatchStockUpdateDTO(List.of(new StockUpdateDTO(2L, 100)));
+
+        mockMvc.perform(patch("/api/v1/products/reduce-stock/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("PATCH /api/v1/products/reduce-stock/batch - Bad Request for empty batch")
+    @WithMockUser(roles = "USER")
+    void reduceStockBatch_emptyBatch_returnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/v1/products/reduce-stock/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchStockUpdateDTO(List.of()))))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).reduceStockBatch(any());
+    }
+
+    // ==================== GET /products ====================
+
+    @Test
+    @DisplayName("GET /api/v1/products - Whole catalog as USER when no page is requested")
+    @WithMockUser(roles = "USER")
+    void getAllProducts_asUser_returnsWholeCatalog() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            productList.forEach(consumer);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        var asyncResult = mockMvc.perform(get("/api/v1/products"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].productName", is("Laptop")));
+        verify(productService, never()).getProductPage(any(), anyInt());
     }
 
     @Test
-    @DisplayName("GET /api/v1/products - Success as ORDER_ADMIN")
+    @DisplayName("GET /api/v1/products?size= - First page as ORDER_ADMIN")
     @WithMockUser(roles = "ORDER_ADMIN")
-    void getAllProducts_asOrderAdmin_returnsOk() throws Exception {
-        when(productService.getAllProducts()).thenReturn(productList);
+    void getAllProducts_asOrderAdmin_withSize_returnsFirstPage() throws Exception {
+        when(productService.getProductPage(isNull(), eq(50))).thenReturn(new ProductPageDTO(productList, null));
 
-        mockMvc.perform(get("/api/v1/products"))
+        mockMvc.perform(get("/api/v1/products").param("size", "50"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)));
+        verify(productService, never()).streamAllProducts(any());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products?afterId=&size= - Next page cursor in header")
+    @WithMockUser(roles = "USER")
+    void getAllProducts_withCursor_returnsNextAfterIdHeader() throws Exception {
+        when(productService.getProductPage(1L, 1)).thenReturn(new ProductPageDTO(List.of(productDTO2), 2L));
+
+        mockMvc.perform(get("/api/v1/products").param("afterId", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After-Id", "2"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products - Streams NDJSON when requested")
+    @WithMockUser(roles = "USER")
+    void getAllProducts_acceptNdjson_streamsProducts() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            productList.forEach(consumer);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        var asyncResult = mockMvc.perform(get("/api/v1/products").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(productDTO) + "\n"
+                                + objectMapper.writeValueAsString(productDTO2) + "\n"));
     }
 
     @Test
@@ -196,6 +293,32 @@ public class ProductControllerIntegrationTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    @DisplayName("GET /api/v1/products?ids= - Success as USER")
+    @WithMockUser(roles = "USER")
+    void getProductsByIds_asUser_returnsOk() throws Exception {
+        when(productService.getProductsByIds(List.of(1L, 2L))).thenReturn(productList);
+
+        mockMvc.perform(get("/api/v1/products").param("ids", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].productName", is("Smartphone")));
+
+        verify(productService, never()).getProductPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products?ids= - Bad Request above the id limit")
+    @WithMockUser(roles = "USER")
+    void getProductsByIds_tooManyIds_returnsBadRequest() throws Exception {
+        String[] ids = LongStream.rangeClosed(1, 501).mapToObj(String::valueOf).toArray(String[]::new);
+
+        mockMvc.perform(get("/api/v1/products").param("ids", ids))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).getProductsByIds(any());
+    }
+
     // ==================== GET /products/{productId} ====================
 
     @Test
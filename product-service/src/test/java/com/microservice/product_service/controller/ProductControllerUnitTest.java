@@ -1,19 +1,29 @@
 package com.microservice.product_service.controller;
 
+import com.microservice.product_service.model.dto.BatchStockUpdateDTO;
 import com.microservice.product_service.model.dto.ProductDTO;
+import com.microservice.product_service.model.dto.ProductPageDTO;
+import com.microservice.product_service.model.dto.StockUpdateDTO;
 import com.microservice.product_service.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -25,6 +35,9 @@ class ProductControllerUnitTest {
     @Mock
     private ProductService productService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ProductController productController;
 
@@ -72,16 +85,69 @@ class ProductControllerUnitTest {
     }
 
     @Test
-    @DisplayName("Should return list of all products with 200 OK")
-    void getAllProducts_ShouldReturnListOfProducts() {
+    @DisplayName("Should return first page of products with next cursor header")
+    void getProductPage_ShouldReturnPageWithNextCursor() {
         List<ProductDTO> productList = Arrays.asList(productDTO, new ProductDTO());
-        when(productService.getAllProducts()).thenReturn(productList);
+        when(productService.getProductPage(null, 2)).thenReturn(new ProductPageDTO(productList, 2L));
 
-        ResponseEntity<List<ProductDTO>> response = productController.getAllProducts();
+        ResponseEntity<List<ProductDTO>> response = productController.getProductPage(null, 2);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(productList, response.getBody());
-        verify(productService, times(1)).getAllProducts();
+        assertEquals("2", response.getHeaders().getFirst("X-Next-After-Id"));
+        verify(productService, times(1)).getProductPage(null, 2);
+    }
+
+    @Test
+    @DisplayName("Should omit next cursor header on the last page")
+    void getProductPage_LastPage_ShouldOmitNextCursor() {
+        when(productService.getProductPage(1L, 50)).thenReturn(new ProductPageDTO(List.of(productDTO), null));
+
+        ResponseEntity<List<ProductDTO>> response = productController.getProductPage(1L, 50);
+
+        assertEquals(List.of(productDTO), response.getBody());
+        assertFalse(response.getHeaders().containsKey("X-Next-After-Id"));
+    }
+
+    @Test
+    @DisplayName("Should return the whole catalog as one JSON array when no page is requested")
+    void getAllProducts_ShouldWriteWholeCatalogAsJsonArray() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(productDTO);
+            consumer.accept(productDTO);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        ResponseEntity<StreamingResponseBody> response = productController.getAllProducts();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        ProductDTO[] products = objectMapper.readValue(out.toByteArray(), ProductDTO[].class);
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(2, products.length);
+        assertEquals("Laptop", products[0].getProductName());
+        verify(productService, never()).getProductPage(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should stream all products as newline-delimited JSON")
+    void streamAllProducts_ShouldWriteOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ProductDTO> consumer = invocation.getArgument(0);
+            consumer.accept(productDTO);
+            consumer.accept(productDTO);
+            return null;
+        }).when(productService).streamAllProducts(any());
+
+        ResponseEntity<StreamingResponseBody> response = productController.streamAllProducts();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(2, lines.length);
+        assertEquals("Laptop", objectMapper.readValue(lines[0], ProductDTO.class).getProductName());
     }
 
     @Test
@@ -106,4 +172,17 @@ class ProductControllerUnitTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(productService, times(1)).deleteProductById(1L);
     }
+
+    @Test
+    @DisplayName("Should reserve stock for a batch and return 200 OK")
+    void reduceStockBatch_ShouldReturnReservedProducts() {
+        List<StockUpdateDTO> items = List.of(new StockUpdateDTO(1L, 2));
+        when(productService.reduceStockBatch(items)).thenReturn(List.of(productDTO));
+
+        ResponseEntity<List<ProductDTO>> response = productController.reduceStockBatch(new BatchStockUpdateDTO(items));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(productDTO), response.getBody());
+        verify(productService, times(1)).reduceStockBatch(items);
+    }
 }
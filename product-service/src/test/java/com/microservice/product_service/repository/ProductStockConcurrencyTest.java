@@ -0,0 +1,174 @@
+package com.microservice.product_service.repository;
+
+import com.microservice.product_service.exception.InsufficientStockException;
+import com.microservice.product_service.kafka.producer.ProductEventProducer;
+import com.microservice.product_service.mapper.ProductMapper;
+import com.microservice.product_service.model.Product;
+import com.microservice.product_service.service.ProductService;
+import com.microservice.product_service.service.impl.ProductServiceImpl;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers a single product from many threads to prove the conditional UPDATE never oversells,
+ * and logs throughput against the previous read-modify-write path.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductServiceImpl.class, ProductMapper.class})
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+    private static final int INITIAL_STOCK = 500;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private ProductEventProducer productEventProducer;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        productId = productRepository.save(Product.builder()
+                .productName("Hot SKU")
+                .productDescription("Flash sale item")
+                .productPrice(new BigDecimal("99.00"))
+                .stock(INITIAL_STOCK)
+                .build()).getProductId();
+    }
+
+    @Test
+    @DisplayName("Concurrent reduceStock never oversells")
+    void reduceStock_concurrent_neverOversells() throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+
+        long elapsed = hammer(() -> {
+            try {
+                productService.reduceStock(productId, 1);
+                succeeded.incrementAndGet();
+            } catch (InsufficientStockException ignored) {
+                // expected once the stock is exhausted
+            }
+        });
+
+        int remaining = productRepository.findById(productId).orElseThrow().getStock();
+        log.info("Atomic path: {} successful reservations in {} ms ({} ops/s)",
+                succeeded.get(), elapsed, opsPerSecond(elapsed));
+
+        assertEquals(INITIAL_STOCK, succeeded.get());
+        assertEquals(0, remaining);
+    }
+
+    @Test
+    @DisplayName("Throughput comparison against the read-modify-write path")
+    void reduceStock_throughputComparison() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger legacySucceeded = new AtomicInteger();
+
+        long legacyElapsed = hammer(() -> {
+            Boolean reserved = tx.execute(status -> {
+                Product product = productRepository.findById(productId).orElseThrow();
+                if (product.getStock() < 1) {
+                    return false;
+                }
+                product.setStock(product.getStock() - 1);
+                productRepository.save(product);
+                return true;
+            });
+            if (Boolean.TRUE.equals(reserved)) {
+                legacySucceeded.incrementAndGet();
+            }
+        });
+        int legacyOversold = legacySucceeded.get() - INITIAL_STOCK;
+
+        setUp();
+        long atomicElapsed = hammer(() -> {
+            try {
+                productService.reduceStock(productId, 1);
+            } catch (InsufficientStockException ignored) {
+                // expected once the stock is exhausted
+            }
+        });
+
+        log.info("Read-modify-write: {} ms ({} ops/s), oversold by {} units",
+                legacyElapsed, opsPerSecond(legacyElapsed), Math.max(legacyOversold, 0));
+        log.info("Conditional update: {} ms ({} ops/s), oversold by 0 units",
+                atomicElapsed, opsPerSecond(atomicElapsed));
+
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getStock());
+    }
+
+    private long hammer(Runnable reservation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        reservation.run();
+                    }
+                    return null;
+                }));
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return (System.nanoTime() - begin) / 1_000_000;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long opsPerSecond(long elapsedMillis) {
+        return (long) THREADS * ATTEMPTS_PER_THREAD * 1000 / Math.max(elapsedMillis, 1);
+    }
+}
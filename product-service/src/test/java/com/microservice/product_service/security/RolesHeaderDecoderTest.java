@@ -0,0 +1,64 @@
+// Generated from order-service/src/test/java/com/microservices/order_service/security/RolesHeaderDecoderTest.java by scripts/sync-security-copies.sh - edit the source and rerun it.
+package com.microservice.product_service.security;
+
+import com.microservice.product_service.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RolesHeaderDecoderTest {
+
+    private final RolesHeaderDecoder rolesHeaderDecoder = new RolesHeaderDecoder();
+
+    @Test
+    void decode_ShouldStripPrefixAndMapAuthorities() {
+        RolesHeaderDecoder.DecodedRoles decoded = rolesHeaderDecoder.decode("ROLE_USER,ORDER_ADMIN");
+
+        assertThat(decoded.getRoles()).containsExactlyInAnyOrder(Role.USER, Role.ORDER_ADMIN);
+        assertThat(decoded.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ORDER_ADMIN");
+    }
+
+    @Test
+    void decode_ShouldShareResultForRepeatedHeader() {
+        RolesHeaderDecoder.DecodedRoles first = rolesHeaderDecoder.decode("ROLE_USER");
+        RolesHeaderDecoder.DecodedRoles second = rolesHeaderDecoder.decode("ROLE_USER");
+
+        assertThat(second).isSameAs(first);
+        assertThatThrownBy(() -> second.getRoles().add(Role.SUPER_ADMIN))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void decode_ShouldReuseAuthorityInstancesAcrossCombinations() {
+        GrantedAuthority fromSingle = rolesHeaderDecoder.decode("ROLE_USER").getAuthorities().getFirst();
+        GrantedAuthority fromPair = rolesHeaderDecoder.decode("ROLE_SUPER_ADMIN,ROLE_USER").getAuthorities().stream()
+                .filter(a -> a.getAuthority().equals("ROLE_USER"))
+                .findFirst()
+                .orElseThrow();
+
+        assertThat(fromPair).isSameAs(fromSingle);
+    }
+
+    @Test
+    void decode_ShouldRejectUnknownRoleWithoutCachingIt() {
+        assertThatThrownBy(() -> rolesHeaderDecoder.decode("ROLE_HACKER"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> rolesHeaderDecoder.decode("ROLE_HACKER"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void decode_ShouldStopCachingBeyondLimit() {
+        Role[] roles = Role.values();
+        for (int i = 0; i < RolesHeaderDecoder.MAX_CACHED_COMBINATIONS + 8; i++) {
+            // Distinct header strings for the same roles, e.g. repeated entries
+            rolesHeaderDecoder.decode(("ROLE_USER,").repeat(i + 1) + roles[i % roles.length].name());
+        }
+
+        RolesHeaderDecoder.DecodedRoles uncached = rolesHeaderDecoder.decode("ROLE_USER,".repeat(100) + "USER");
+        assertThat(rolesHeaderDecoder.decode("ROLE_USER,".repeat(100) + "USER")).isNotSameAs(uncached);
+    }
+}
@@ -1,26 +1,38 @@
 package com.microservice.product_service.service;
 
+import com.microservice.product_service.exception.InsufficientStockException;
 import com.microservice.product_service.exception.ProductNotFoundException;
+import com.microservice.product_service.kafka.event.ProductChangedEvent;
+import com.microservice.product_service.kafka.producer.ProductEventProducer;
 import com.microservice.product_service.mapper.ProductMapper;
 import com.microservice.product_service.model.Product;
 import com.microservice.product_service.model.dto.ProductDTO;
+import com.microservice.product_service.model.dto.ProductPageDTO;
+import com.microservice.product_service.model.dto.StockUpdateDTO;
 import com.microservice.product_service.repository.ProductRepository;
 import com.microservice.product_service.service.impl.ProductServiceImpl;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Set;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 class ProductServiceImplTest {
@@ -31,6 +43,12 @@ class ProductServiceImplTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductEventProducer productEventProducer;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -68,6 +86,7 @@ class ProductServiceImplTest {
         assertNotNull(result);
         assertEquals(productDTO.getProductName(), result.getProductName());
         verify(productRepository, times(1)).save(any(Product.class));
+        verify(productEventProducer).sendProductChangedEvent(argThat(e -> "CREATED".equals(e.getChangeType())));
     }
 
     @Test
@@ -84,6 +103,7 @@ class ProductServiceImplTest {
         assertEquals(productDTO.getProductId(), result.getProductId());
         verify(productRepository).findById(1L);
         verify(productRepository).save(product);
+        verify(productEventProducer).sendProductChangedEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -123,19 +143,71 @@ class ProductServiceImplTest {
     }
 
     @Test
-    @DisplayName("Should return list of all products")
-    void getAllProducts_ShouldReturnProductList() {
+    @DisplayName("Should return a page with next cursor when more products exist")
+    void getProductPage_ShouldReturnPageWithNextCursor() {
+        Product second = Product.builder().productId(2L).productName("Phone").build();
+        Product third = Product.builder().productId(3L).productName("Tablet").build();
+
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(product, second, third));
+        when(productMapper.toDTOList(List.of(product, second))).thenReturn(List.of(productDTO, new ProductDTO()));
+
+        ProductPageDTO result = productService.getProductPage(null, 2);
+
+        assertEquals(2, result.getProducts().size());
+        assertEquals(2L, result.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Should return last page without next cursor")
+    void getProductPage_LastPage_ShouldHaveNoNextCursor() {
+        List<Product> products = Collections.singletonList(product);
+
+        when(productRepository.findByProductIdGreaterThanOrderByProductIdAsc(0L, Limit.of(51))).thenReturn(products);
+        when(productMapper.toDTOList(products)).thenReturn(List.of(productDTO));
+
+        ProductPageDTO result = productService.getProductPage(0L, 50);
+
+        assertEquals(1, result.getProducts().size());
+        assertNull(result.getNextAfterId());
+    }
+
+    @Test
+    @DisplayName("Should reject page sizes outside the allowed range")
+    void getProductPage_InvalidSize_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductPage(null, 501));
+
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should stream every product and detach it after mapping")
+    void streamAllProducts_ShouldMapAndDetachEachProduct() {
+        when(productRepository.streamAllByOrderByProductId()).thenReturn(Stream.of(product));
+        when(productMapper.toDTO(product)).thenReturn(productDTO);
+        List<ProductDTO> streamed = new ArrayList<>();
+
+        productService.streamAllProducts(streamed::add);
+
+        assertEquals(List.of(productDTO), streamed);
+        verify(entityManager).detach(product);
+    }
+
+    @Test
+    @DisplayName("Should return products for the given IDs in one query")
+    void getProductsByIds_ShouldReturnProductList() {
         List<Product> products = Collections.singletonList(product);
         List<ProductDTO> productDTOs = Collections.singletonList(productDTO);
 
-        when(productRepository.findAll()).thenReturn(products);
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(products);
         when(productMapper.toDTOList(products)).thenReturn(productDTOs);
 
-        List<ProductDTO> result = productService.getAllProducts();
+        List<ProductDTO> result = productService.getProductsByIds(List.of(1L, 2L));
 
         assertEquals(1, result.size());
-        assertEquals(productDTO.getProductName(), result.getFirst().getProductName());
-        verify(productRepository, times(1)).findAll();
+        verify(productRepository, times(1)).findAllById(List.of(1L, 2L));
+        verify(productRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -147,6 +219,7 @@ class ProductServiceImplTest {
         productService.deleteProductById(1L);
 
         verify(productRepository, times(1)).deleteById(1L);
+        verify(productEventProducer).sendProductChangedEvent(any(ProductChangedEvent.class));
     }
 
     @Test
@@ -158,6 +231,116 @@ class ProductServiceImplTest {
                 () -> productService.deleteProductById(123L));
 
         verify(productRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(productEventProducer);
     }
-}
 
+    @Test
+    @DisplayName("Should reduce stock with a single conditional update")
+    void reduceStock_ShouldReturnUpdatedProductDTO() {
+        when(productRepository.reduceStockIfAvailable(1L, 2)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDTO(any(Product.class))).thenReturn(productDTO);
+
+        ProductDTO result = productService.reduceStock(1L, 2);
+
+        assertEquals(productDTO, result);
+        verify(productRepository).reduceStockIfAvailable(1L, 2);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productEventProducer).sendProductChangedEvent(argThat(e ->
+                e.getProductId().equals(1L) && "STOCK_CHANGED".equals(e.getChangeType())));
+    }
+
+    @Test
+    @DisplayName("Should throw when stock is insufficient")
+    void reduceStock_ShouldThrowWhenInsufficientStock() {
+        when(productRepository.reduceStockIfAvailable(1L, 50)).thenReturn(0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class,
+                () -> productService.reduceStock(1L, 50));
+
+        verify(productRepository, never()).findById(anyLong());
+        verifyNoInteractions(productEventProducer);
+    }
+
+    @Test
+    @DisplayName("Should throw when reducing stock of non-existing product")
+    void reduceStock_ShouldThrowWhenNotFound() {
+        when(productRepository.reduceStockIfAvailable(99L, 1)).thenReturn(0);
+        when(productRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class,
+                () -> productService.reduceStock(99L, 1));
+    }
+
+    @Test
+    @DisplayName("Should reject non-positive quantity")
+    void reduceStock_ShouldRejectNonPositiveQuantity() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.reduceStock(1L, 0));
+
+        verify(productRepository, never()).reduceStockIfAvailable(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should increase stock with a single update")
+    void increaseStock_ShouldReturnUpdatedProductDTO() {
+        when(productRepository.increaseStockBy(1L, 3)).thenReturn(1);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productMapper.toDTO(any(Product.class))).thenReturn(productDTO);
+
+        ProductDTO result = productService.increaseStock(1L, 3);
+
+        assertEquals(productDTO, result);
+        verify(productRepository).increaseStockBy(1L, 3);
+        verify(productRepository, never()).save(any(Product.class));
+        verify(productEventProducer).sendProductChangedEvent(argThat(e ->
+                e.getProductId().equals(1L) && "STOCK_CHANGED".equals(e.getChangeType())));
+    }
+
+    @Test
+    @DisplayName("Should throw when increasing stock of non-existing product")
+    void increaseStock_ShouldThrowWhenNotFound() {
+        when(productRepository.increaseStockBy(99L, 3)).thenReturn(0);
+
+        assertThrows(ProductNotFoundException.class,
+                () -> productService.increaseStock(99L, 3));
+    }
+
+    @Test
+    @DisplayName("Should reserve all items of a batch and merge duplicate lines")
+    void reduceStockBatch_ShouldReserveAllItems() {
+        List<StockUpdateDTO> items = List.of(
+                new StockUpdateDTO(1L, 2),
+                new StockUpdateDTO(2L, 1),
+                new StockUpdateDTO(1L, 3));
+        Product other = Product.builder().productId(2L).productPrice(BigDecimal.TEN).build();
+        when(productRepository.reduceStockIfAvailable(1L, 5)).thenReturn(1);
+        when(productRepository.reduceStockIfAvailable(2L, 1)).thenReturn(1);
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(product, other));
+        when(productMapper.toDTOList(List.of(product, other))).thenReturn(List.of(productDTO, new ProductDTO()));
+
+        List<ProductDTO> result = productService.reduceStockBatch(items);
+
+        assertEquals(2, result.size());
+        verify(productRepository).reduceStockIfAvailable(1L, 5);
+        verify(productRepository).reduceStockIfAvailable(2L, 1);
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productEventProducer, times(2)).sendProductChangedEvent(argThat(e -> "STOCK_CHANGED".equals(e.getChangeType())));
+    }
+
+    @Test
+    @DisplayName("Should fail the whole batch when one item has insufficient stock")
+    void reduceStockBatch_ShouldThrowWhenAnyItemInsufficient() {
+        List<StockUpdateDTO> items = List.of(new StockUpdateDTO(1L, 1), new StockUpdateDTO(2L, 100));
+        when(productRepository.reduceStockIfAvailable(1L, 1)).thenReturn(1);
+        when(productRepository.reduceStockIfAvailable(2L, 100)).thenReturn(0);
+        when(productRepository.existsById(2L)).thenReturn(true);
+
+        assertThrows(InsufficientStockException.class,
+                () -> productService.reduceStockBatch(items));
+
+        verify(productRepository, never()).findAllById(any());
+        verifyNoInteractions(productEventProducer);
+    }
+}
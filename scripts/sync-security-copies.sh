@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Each service is built and shipped on its own (see .github/workflows and the per-service
+# dockerfiles), so security helpers that are identical across services are kept as copies
+# rather than a shared module. order-service holds the source; this script regenerates the
+# other copies from it with the package rewritten.
+#
+#   scripts/sync-security-copies.sh          rewrite the copies
+#   scripts/sync-security-copies.sh --check  fail if any copy has drifted from the source
+#
+# JwtUtil in product-service and user-service is not generated: product-service rethrows
+# validation failures and user-service also issues tokens.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+SOURCE_PACKAGE=com.microservices.order_service
+SOURCE_MAIN=order-service/src/main/java/com/microservices/order_service
+SOURCE_TEST=order-service/src/test/java/com/microservices/order_service
+
+# <service dir>:<base package> of every service that receives a copy
+TARGETS=(
+    delivery-service:com.microservices.delivery_service
+    product-service:com.microservice.product_service
+    user-service:com.microservices.user_service
+)
+
+# <file below the base package>:<space-separated services that receive it>
+FILES=(
+    "main/security/RolesHeaderDecoder.java:delivery-service product-service user-service"
+    "test/security/RolesHeaderDecoderTest.java:delivery-service product-service user-service"
+    "main/security/JwtUtil.java:delivery-service"
+)
+
+check=false
+if [[ "${1:-}" == "--check" ]]; then
+    check=true
+elif [[ $# -gt 0 ]]; then
+    echo "usage: $0 [--check]" >&2
+    exit 2
+fi
+
+render() {
+    local source=$1 package=$2
+    echo "// Generated from ${source} by scripts/sync-security-copies.sh - edit the source and rerun it."
+    sed "s/${SOURCE_PACKAGE//./\\.}/${package}/g" "$source"
+}
+
+drifted=0
+for entry in "${FILES[@]}"; do
+    file=${entry%%:*}
+    services=${entry#*:}
+    scope=${file%%/*}
+    relative=${file#*/}
+    if [[ "$scope" == main ]]; then source="$SOURCE_MAIN/$relative"; else source="$SOURCE_TEST/$relative"; fi
+
+    for target in "${TARGETS[@]}"; do
+        service=${target%%:*}
+        package=${target#*:}
+        [[ " $services " == *" $service "* ]] || continue
+
+        copy="$service/src/$scope/java/${package//.//}/$relative"
+        if $check; then
+            if ! diff -q <(render "$source" "$package") "$copy" > /dev/null; then
+                echo "out of date: $copy" >&2
+                drifted=1
+            fi
+        else
+            render "$source" "$package" > "$copy"
+        fi
+    done
+done
+
+if [[ $drifted -ne 0 ]]; then
+    echo "run scripts/sync-security-copies.sh to regenerate them from $SOURCE_MAIN" >&2
+    exit 1
+fi
@@ -0,0 +1,15 @@
+package com.microservices.user_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published whenever a user's roles may have changed (role assignment, super admin creation
+ * or user deletion), so role-derived caches can be invalidated once the change commits.
+ */
+@Getter
+@AllArgsConstructor
+public class UserRolesChangedEvent {
+
+    private final String userId;
+}
@@ -1,5 +1,6 @@
 package com.microservices.user_service.repository;
 
+import com.microservices.user_service.model.Role;
 import com.microservices.user_service.model.Users;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -12,4 +13,6 @@ public interface UserRepository extends JpaRepository<Users, String> {
     Optional<Users> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    boolean existsByRolesContaining(Role role);
 }
@@ -1,6 +1,5 @@
 package com.microservices.user_service.security;
 
-import com.microservices.user_service.model.Role;
 import com.microservices.user_service.model.UserPrincipal;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -14,15 +13,14 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.Collections;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Component
 public class GatewayAuthenticationFilter extends OncePerRequestFilter {
 
+    private final RolesHeaderDecoder rolesHeaderDecoder = new RolesHeaderDecoder();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -36,16 +34,13 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
 
         // If headers exist, populate SecurityContext
         if (userId != null && userEmail != null && rolesHeader != null) {
-            // Create UserPrincipal
-            Set<Role> roles = Arrays.stream(rolesHeader.split(","))
-                    .map(roleName -> roleName.startsWith("ROLE_") ? roleName.substring(5) : roleName)
-                    .map(Role::valueOf)
-                    .collect(Collectors.toSet());
+            // Role combinations repeat across requests, so the decoded roles are shared
+            RolesHeaderDecoder.DecodedRoles decodedRoles = rolesHeaderDecoder.decode(rolesHeader);
 
             UserPrincipal userPrincipal = UserPrincipal.builder()
                     .userId(userId)
                     .email(userEmail)
-                    .roles(roles)
+                    .roles(decodedRoles.getRoles())
                     .build();
 
             // Create authentication token
@@ -53,7 +48,7 @@ public class GatewayAuthenticationFilter extends OncePerRequestFilter {
                     new UsernamePasswordAuthenticationToken(
                             userPrincipal,
                             null,
-                            userPrincipal.getAuthorities()
+                            decodedRoles.getAuthorities()
                     );
 
             // Set in SecurityContext
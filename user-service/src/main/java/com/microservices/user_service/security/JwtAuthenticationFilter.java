@@ -1,8 +1,9 @@
 package com.microservices.user_service.security;
 
-import com.microservices.user_service.model.Role;
 import com.microservices.user_service.model.UserPrincipal;
 import com.microservices.user_service.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,9 +18,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @Component
@@ -28,6 +28,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService customUserDetailsService;
+    private final UserDetailsCache userDetailsCache;
+    private final RolesHeaderDecoder rolesHeaderDecoder = new RolesHeaderDecoder();
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -41,26 +43,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (gatewayUserId != null && gatewayUserEmail != null) {
             log.debug("🚪 Request from API Gateway - User ID: {}, Email: {}", gatewayUserId, gatewayUserEmail);
 
-            Set<Role> roles = Arrays.stream(rolesHeader.split(","))
-                    .map(roleName -> roleName.startsWith("ROLE_") ? roleName.substring(5) : roleName) // Strip "ROLE_"
-                    .map(Role::valueOf)
-                    .collect(Collectors.toSet());
-
-            UserPrincipal userPrincipal = UserPrincipal.builder()
-                    .userId(gatewayUserId)
-                    .email(gatewayUserEmail)
-                    .roles(roles)
-                    .build();
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            userPrincipal,
-                            null,
-                            userPrincipal.getAuthorities()
-                    );
-
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            RolesHeaderDecoder.DecodedRoles decodedRoles = rolesHeaderDecoder.decode(rolesHeader != null ? rolesHeader : "");
+            authenticate(request, gatewayUserId, gatewayUserEmail, decodedRoles);
 
             log.debug("✅ SecurityContext populated from Gateway headers for user: {}", gatewayUserEmail);
             filterChain.doFilter(request, response);
@@ -71,38 +55,95 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         log.debug("🔐 Direct request detected - validating JWT token");
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String email = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            try {
-                email = jwtUtil.extractUsername(token);
-                log.debug("Extracted email from JWT: {}", email);
-            } catch (Exception e) {
-                log.error("JWT token extraction failed: {}", e.getMessage());
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+            if (jwtUtil.isStateless()) {
+                authenticateFromClaims(request, token);
+            } else {
+                authenticateFromDatabase(request, token);
             }
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            log.debug("Loading user details for email: {}", email);
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
-
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
+        filterChain.doFilter(request, response);
+    }
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+    // Principal comes from the verified claims; the database is only consulted through the
+    // short-TTL revocation cache
+    private void authenticateFromClaims(HttpServletRequest request, String token) {
+        Claims claims;
+        RolesHeaderDecoder.DecodedRoles decodedRoles;
+        try {
+            claims = jwtUtil.extractAllClaims(token);
+            decodedRoles = rolesHeaderDecoder.decode(String.join(",", rolesClaim(claims)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("JWT token validation failed: {}", e.getMessage());
+            return;
+        }
 
-                log.debug("✅ User {} authenticated with roles: {}", email, userDetails.getAuthorities());
-            } else {
-                log.warn("❌ Token validation failed for user: {}", email);
+        String email = claims.getSubject();
+        if (userDetailsCache.isEnabled()) {
+            Optional<UserPrincipal> current = userDetailsCache.find(email);
+            if (current.isEmpty() || !current.get().getRoles().containsAll(decodedRoles.getRoles())) {
+                log.warn("❌ Token for user {} has been revoked", email);
+                return;
             }
         }
 
-        filterChain.doFilter(request, response);
+        authenticate(request, claims.get("userId", String.class), email, decodedRoles);
+        log.debug("✅ User {} authenticated from token claims with roles: {}", email, decodedRoles.getRoles());
+    }
+
+    private void authenticateFromDatabase(HttpServletRequest request, String token) {
+        String email;
+        try {
+            email = jwtUtil.extractUsername(token);
+            log.debug("Extracted email from JWT: {}", email);
+        } catch (Exception e) {
+            log.error("JWT token extraction failed: {}", e.getMessage());
+            return;
+        }
+
+        log.debug("Loading user details for email: {}", email);
+        UserDetails userDetails = customUserDetailsService.loadUserByUsername(email);
+
+        if (jwtUtil.validateToken(token, userDetails)) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities());
+
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+
+            log.debug("✅ User {} authenticated with roles: {}", email, userDetails.getAuthorities());
+        } else {
+            log.warn("❌ Token validation failed for user: {}", email);
+        }
+    }
+
+    private void authenticate(HttpServletRequest request, String userId, String email,
+                              RolesHeaderDecoder.DecodedRoles decodedRoles) {
+        UserPrincipal userPrincipal = UserPrincipal.builder()
+                .userId(userId)
+                .email(email)
+                .roles(decodedRoles.getRoles())
+                .build();
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        userPrincipal,
+                        null,
+                        decodedRoles.getAuthorities()
+                );
+
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> rolesClaim(Claims claims) {
+        List<String> roles = claims.get("roles", List.class);
+        return roles != null ? roles : List.of();
     }
-}
\ No newline at end of file
+}
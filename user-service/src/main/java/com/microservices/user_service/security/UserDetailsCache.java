@@ -0,0 +1,67 @@
+package com.microservices.user_service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservices.user_service.event.UserRolesChangedEvent;
+import com.microservices.user_service.model.UserPrincipal;
+import com.microservices.user_service.service.CustomUserDetailsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived view of users for revocation checks on stateless JWT requests: a deleted user or
+ * one who lost a role is rejected within {@code jwt.user-details-cache.ttl} instead of when the
+ * token expires, while the database is queried at most once per user per TTL. Local role
+ * changes evict the cache as soon as they commit. A TTL of zero disables the check.
+ */
+@Slf4j
+@Component
+public class UserDetailsCache {
+
+    private final CustomUserDetailsService customUserDetailsService;
+    private final Cache<String, Optional<UserPrincipal>> cache;
+    private final boolean enabled;
+
+    public UserDetailsCache(CustomUserDetailsService customUserDetailsService,
+                            @Value("${jwt.user-details-cache.ttl:30s}") Duration ttl,
+                            @Value("${jwt.user-details-cache.maximum-size:10000}") long maximumSize) {
+        this.customUserDetailsService = customUserDetailsService;
+        this.enabled = !ttl.isZero() && !ttl.isNegative();
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(enabled ? ttl : Duration.ofMillis(1))
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the current user for the email, or empty if the user no longer exists.
+     */
+    public Optional<UserPrincipal> find(String email) {
+        return cache.get(email, this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        // Entries are keyed by email; role changes are rare enough to drop them all
+        log.debug("Roles changed for user {}, invalidating user details cache", event.getUserId());
+        cache.invalidateAll();
+    }
+
+    private Optional<UserPrincipal> load(String email) {
+        try {
+            return Optional.of((UserPrincipal) customUserDetailsService.loadUserByUsername(email));
+        } catch (UsernameNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.microservices.user_service.service.impl;
 
 import com.microservices.user_service.model.dto.UserDto;
 import com.microservices.user_service.model.dto.UserRegistrationDto;
+import com.microservices.user_service.event.UserRolesChangedEvent;
 import com.microservices.user_service.exception.DuplicateEmailException;
 import com.microservices.user_service.exception.UnauthorizedException;
 import com.microservices.user_service.exception.UserNotFoundException;
@@ -13,6 +14,7 @@ import com.microservices.user_service.repository.UserRepository;
 import com.microservices.user_service.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
@@ -20,10 +22,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -33,6 +37,12 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Bumped on every committed role change; a cached "super admin exists" answer is only
+    // valid for the generation it was read in
+    private final AtomicLong rolesGeneration = new AtomicLong();
+    private volatile long superAdminSeenInGeneration = -1;
 
     @Override
     @Transactional
@@ -56,7 +66,8 @@ public class UserServiceImpl implements UserService {
         if (userRepository.existsByEmail(registrationDto.getEmail())) {
             throw new DuplicateEmailException("Email already registered: " + registrationDto.getEmail());
         }
-        if (superAdminExists()) {
+        // Always ask the database here rather than the cached flag
+        if (userRepository.existsByRolesContaining(Role.SUPER_ADMIN)) {
             throw new IllegalStateException("Super Admin already exists in the system");
         }
         String encodedPassword = passwordEncoder.encode(registrationDto.getPassword());
@@ -71,6 +82,7 @@ public class UserServiceImpl implements UserService {
                 .roles(Set.of(Role.SUPER_ADMIN))
                 .build();
         Users savedAdmin = userRepository.save(superAdmin);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(savedAdmin.getUserId()));
 
         return userMapper.toDto(savedAdmin);
     }
@@ -78,8 +90,23 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public boolean superAdminExists() {
-        return userRepository.findAll().stream()
-                .anyMatch(user -> user.getRoles() != null && user.getRoles().contains(Role.SUPER_ADMIN));
+        long generation = rolesGeneration.get();
+        if (superAdminSeenInGeneration == generation) {
+            return true;
+        }
+
+        // Only a positive answer is cached: "no super admin yet" must stay fresh for /register-admin
+        boolean exists = userRepository.existsByRolesContaining(Role.SUPER_ADMIN);
+        if (exists) {
+            superAdminSeenInGeneration = generation;
+        }
+        return exists;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserRolesChanged(UserRolesChangedEvent event) {
+        log.debug("Roles changed for user {}, invalidating super admin flag", event.getUserId());
+        rolesGeneration.incrementAndGet();
     }
 
     @Override
@@ -166,6 +193,7 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException("User not found with id: " + userId);
         }
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(userId));
         log.info("Deleted user with id: {}", userId);
     }
 
@@ -180,6 +208,7 @@ public class UserServiceImpl implements UserService {
 
         user.setRoles(roles);
         Users updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserRolesChangedEvent(userId));
 
         return userMapper.toDto(updatedUser);
     }
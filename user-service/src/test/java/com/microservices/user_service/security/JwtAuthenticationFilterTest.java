@@ -0,0 +1,146 @@
+package com.microservices.user_service.security;
+
+import com.microservices.user_service.event.UserRolesChangedEvent;
+import com.microservices.user_service.model.Role;
+import com.microservices.user_service.model.UserPrincipal;
+import com.microservices.user_service.model.Users;
+import com.microservices.user_service.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock private CustomUserDetailsService customUserDetailsService;
+
+    private JwtUtil jwtUtil;
+    private UserPrincipal john;
+
+    @BeforeEach
+    void setUp() {
+        SecurityContextHolder.clearContext();
+        jwtUtil = new JwtUtil();
+        jwtUtil.setSecret("my-secret-key-for-jwt-is-1234567!@#");
+        jwtUtil.setExpiration(600_000L);
+
+        Users user = new Users();
+        user.setUserId("user-1");
+        user.setEmail("john@test.com");
+        user.setPassword("hashed");
+        user.setRoles(new HashSet<>(Set.of(Role.USER, Role.ORDER_ADMIN)));
+        john = new UserPrincipal(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessMode_ShouldBuildPrincipalFromClaimsWithoutLoadingUser() throws Exception {
+        JwtAuthenticationFilter filter = filter(Duration.ZERO);
+
+        filter.doFilter(bearer(jwtUtil.generateToken(john, "user-1")), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        assertThat(principal.getUserId()).isEqualTo("user-1");
+        assertThat(principal.getEmail()).isEqualTo("john@test.com");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "ROLE_ORDER_ADMIN");
+        verifyNoInteractions(customUserDetailsService);
+    }
+
+    @Test
+    void statelessMode_ShouldLoadUserOncePerTtl_WhenRevocationCheckEnabled() throws Exception {
+        JwtAuthenticationFilter filter = filter(Duration.ofSeconds(30));
+        when(customUserDetailsService.loadUserByUsername("john@test.com")).thenReturn(john);
+        String token = jwtUtil.generateToken(john, "user-1");
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(customUserDetailsService, times(1)).loadUserByUsername("john@test.com");
+    }
+
+    @Test
+    void statelessMode_ShouldRejectToken_WhenUserWasDeleted() throws Exception {
+        JwtAuthenticationFilter filter = filter(Duration.ofSeconds(30));
+        when(customUserDetailsService.loadUserByUsername("john@test.com"))
+                .thenThrow(new UsernameNotFoundException("gone"));
+
+        filter.doFilter(bearer(jwtUtil.generateToken(john, "user-1")), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void statelessMode_ShouldRejectToken_OnceRoleIsRevoked() throws Exception {
+        UserDetailsCache userDetailsCache = new UserDetailsCache(customUserDetailsService, Duration.ofSeconds(30), 100);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(jwtUtil, customUserDetailsService, userDetailsCache);
+        String token = jwtUtil.generateToken(john, "user-1");
+        UserPrincipal demoted = UserPrincipal.builder()
+                .userId("user-1").email("john@test.com").roles(Set.of(Role.USER)).build();
+        when(customUserDetailsService.loadUserByUsername("john@test.com")).thenReturn(john, demoted);
+
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+        userDetailsCache.onUserRolesChanged(new UserRolesChangedEvent("user-1"));
+        filter.doFilter(bearer(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void statelessMode_ShouldIgnoreTamperedToken() throws Exception {
+        JwtAuthenticationFilter filter = filter(Duration.ZERO);
+        String token = jwtUtil.generateToken(john, "user-1");
+
+        filter.doFilter(bearer(token + "x"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void databaseMode_ShouldLoadUserOnEveryRequest() throws Exception {
+        jwtUtil.setStateless(false);
+        JwtAuthenticationFilter filter = filter(Duration.ZERO);
+        when(customUserDetailsService.loadUserByUsername("john@test.com")).thenReturn(john);
+
+        filter.doFilter(bearer(jwtUtil.generateToken(john, "user-1")), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(john);
+        verify(customUserDetailsService).loadUserByUsername("john@test.com");
+    }
+
+    private JwtAuthenticationFilter filter(Duration userDetailsTtl) {
+        return new JwtAuthenticationFilter(jwtUtil, customUserDetailsService,
+                new UserDetailsCache(customUserDetailsService, userDetailsTtl, 100));
+    }
+
+    private MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/user-1");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
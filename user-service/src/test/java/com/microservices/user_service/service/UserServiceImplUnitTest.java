@@ -1,5 +1,6 @@
 package com.microservices.user_service.service;
 
+import com.microservices.user_service.event.UserRolesChangedEvent;
 import com.microservices.user_service.exception.DuplicateEmailException;
 import com.microservices.user_service.exception.UnauthorizedException;
 import com.microservices.user_service.exception.UserNotFoundException;
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -38,6 +40,7 @@ class UserServiceImplUnitTest {
     @Mock private UserRepository userRepository;
     @Mock private UserMapper userMapper;
     @Mock private PasswordEncoder passwordEncoder;
+    @Mock private ApplicationEventPublisher eventPublisher;
     @Mock private SecurityContext securityContext;
     @Mock private Authentication authentication;
 
@@ -103,12 +106,13 @@ class UserServiceImplUnitTest {
     @Test
     void createSuperAdmin_Success() {
         when(userRepository.existsByEmail(any())).thenReturn(false);
-        when(userRepository.findAll()).thenReturn(Collections.emptyList());
+        when(userRepository.existsByRolesContaining(Role.SUPER_ADMIN)).thenReturn(false);
         when(passwordEncoder.encode(any())).thenReturn("encoded");
         when(userRepository.save(any())).thenReturn(userEntity);
         when(userMapper.toDto(any())).thenReturn(userDto);
 
         assertNotNull(userService.createSuperAdmin(registrationDto));
+        verify(eventPublisher).publishEvent(any(UserRolesChangedEvent.class));
     }
 
     @Test
@@ -120,8 +124,7 @@ class UserServiceImplUnitTest {
     @Test
     void createSuperAdmin_AlreadyExists() {
         when(userRepository.existsByEmail(any())).thenReturn(false);
-        Users existingAdmin = Users.builder().roles(Set.of(Role.SUPER_ADMIN)).build();
-        when(userRepository.findAll()).thenReturn(List.of(existingAdmin));
+        when(userRepository.existsByRolesContaining(Role.SUPER_ADMIN)).thenReturn(true);
 
         assertThrows(IllegalStateException.class, () -> userService.createSuperAdmin(registrationDto));
     }
@@ -371,6 +374,7 @@ class UserServiceImplUnitTest {
 
         userService.assignRoles("u1", Set.of(Role.SUPER_ADMIN));
         verify(userRepository).save(userEntity);
+        verify(eventPublisher).publishEvent(any(UserRolesChangedEvent.class));
     }
 
     @Test
@@ -407,17 +411,38 @@ class UserServiceImplUnitTest {
     }
 
     @Test
-    void superAdminExists_NullRoles_False() {
-        Users u = new Users();
-        u.setRoles(null);
-        when(userRepository.findAll()).thenReturn(List.of(u));
+    void superAdminExists_NoSuperAdmin_False() {
+        when(userRepository.existsByRolesContaining(Role.SUPER_ADMIN)).thenReturn(false);
         assertFalse(userService.superAdminExists());
+        verify(userRepository, never()).findAll();
     }
 
     @Test
-    void superAdminExists_UserWithStandardRole_ReturnsFalse() {
-        Users u = Users.builder().roles(Set.of(Role.USER)).build();
-        when(userRepository.findAll()).thenReturn(List.of(u));
+    void superAdminExists_NegativeAnswerIsNotCached() {
+        when(userRepository.existsByRolesContaining(Role.SUPER_ADMIN)).thenReturn(false, true);
+
+        assertFalse(userService.superAdminExists());
+        assertTrue(userService.superAdminExists());
+        verify(userRepository, times(2)).existsByRolesContaining(Role.SUPER_ADMIN);
+    }
+
+    @Test
+    void superAdminExists_PositiveAnswerIsCached() {
+        when(userRepository.existsByRolesContaining(Role.SUPER_ADMIN)).thenReturn(true);
+
+        assertTrue(userService.superAdminExists());
+        assertTrue(userService.superAdminExists());
+        verify(userRepository, times(1)).existsByRolesContaining(Role.SUPER_ADMIN);
+    }
+
+    @Test
+    void superAdminExists_RolesChangedEvent_InvalidatesCachedFlag() {
+        when(userRepository.existsByRolesContaining(Role.SUPER_ADMIN)).thenReturn(true, false);
+        assertTrue(userService.superAdminExists());
+
+        userService.onUserRolesChanged(new UserRolesChangedEvent("admin"));
+
         assertFalse(userService.superAdminExists());
+        verify(userRepository, times(2)).existsByRolesContaining(Role.SUPER_ADMIN);
     }
 }
\ No newline at end of file